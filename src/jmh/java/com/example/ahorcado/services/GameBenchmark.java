@@ -0,0 +1,93 @@
+package com.example.ahorcado.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de las operaciones de una partida: crearla, probar letras y consultar la palabra oculta.
+ * Las partidas usan el temporizador perezoso para no medir la rueda de temporizadores, salvo en jugarPartidaConRueda,
+ * que mide lo que añade reprogramar el turno en la rueda en cada intento.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+	// Letras por frecuencia en español, así las partidas se parecen a las de un jugador
+	private static final char[] LETRAS = "EAOSRNIDLCTUMPBGVYQHFZJÑXKW".toCharArray();
+
+	private Corpus corpus;
+	private int siguiente;
+	private Game partidaEmpezada;
+	private RuedaTemporizadores rueda;
+
+	@Setup
+	public void preparar() {
+		corpus = new Diccionario("").actual();
+		rueda = new RuedaTemporizadores(100, 512);
+		rueda.iniciar();
+		partidaEmpezada = new Game(corpus, 0, null);
+		partidaEmpezada.probarLetra('A');
+		partidaEmpezada.probarLetra('E');
+	}
+
+	@Benchmark
+	public Game crearPartida() {
+		return new Game(corpus, siguientePalabra(), null);
+	}
+
+	/**
+	 * Juega una partida entera probando letras y mostrando la palabra oculta tras cada intento, como hace la página.
+	 * Restando crearPartida queda el coste de los intentos.
+	 */
+	@Benchmark
+	public String jugarPartida() {
+		return jugar(new Game(corpus, siguientePalabra(), null));
+	}
+
+	/**
+	 * Como jugarPartida pero con el turno programado en la rueda. Las partidas siempre terminan, así su plazo
+	 * se cancela y la rueda no acumula turnos.
+	 */
+	@Benchmark
+	public String jugarPartidaConRueda() {
+		return jugar(new Game(corpus, siguientePalabra(), rueda));
+	}
+
+	@TearDown
+	public void terminar() throws InterruptedException {
+		rueda.detener();
+	}
+
+	private String jugar(Game partida) {
+		String palabraOculta = partida.obtenerPalabraOculta();
+		for (int i = 0; i < LETRAS.length && !partida.palabraDescubierta() && !partida.demasiadosFallos(); i++) {
+			partida.probarLetra(LETRAS[i]);
+			palabraOculta = partida.obtenerPalabraOculta();
+		}
+		return palabraOculta;
+	}
+
+	@Benchmark
+	public boolean probarLetraRepetida() {
+		return partidaEmpezada.probarLetra('A');
+	}
+
+	@Benchmark
+	public String obtenerPalabraOculta() {
+		return partidaEmpezada.obtenerPalabraOculta();
+	}
+
+	@Benchmark
+	public boolean palabraDescubierta() {
+		return partidaEmpezada.palabraDescubierta();
+	}
+
+	private int siguientePalabra() {
+		if (siguiente == corpus.tamano()) siguiente = 0;
+		return siguiente++;
+	}
+}
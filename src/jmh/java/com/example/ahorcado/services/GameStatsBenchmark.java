@@ -0,0 +1,70 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.GameRepository;
+import com.example.ahorcado.persistencia.StatsRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de las estadísticas globales con varios hilos sumando a la vez, como varias peticiones que terminan
+ * partidas al mismo tiempo. Los incrementos se apuntan en la escritura diferida, que nunca se vacía.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class GameStatsBenchmark {
+	private Corpus corpus;
+	private GameStats estadisticas;
+
+	@Setup
+	public void preparar() {
+		corpus = new Diccionario("").actual();
+		estadisticas = new GameStats(new EscrituraDiferida(new GameRepository() {
+			@Override
+			public Optional<InstantaneaPartida> cargar(String jugador) {
+				return Optional.empty();
+			}
+
+			@Override
+			public void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+			}
+		}, new StatsRepository() {
+			@Override
+			public Map<String, Long> cargar() {
+				return Map.of();
+			}
+
+			@Override
+			public void sumar(Map<String, Long> incrementos) {
+			}
+		}));
+	}
+
+	@Benchmark
+	public void nuevaPartida() {
+		estadisticas.nuevaPartida(corpus.palabra(ThreadLocalRandom.current().nextInt(corpus.tamano())));
+	}
+
+	/**
+	 * Empieza y termina una partida con dos letras y la palabra acertada, y registra su resultado.
+	 */
+	@Benchmark
+	public Game registrarPartida() {
+		Game partida = new Game(corpus, ThreadLocalRandom.current().nextInt(corpus.tamano()), null);
+		estadisticas.nuevaPartida(partida.getPalabra());
+		partida.probarLetra('A');
+		partida.probarLetra('S');
+		partida.probarPalabra(partida.getPalabra());
+		estadisticas.registrarFinal(partida);
+		return partida;
+	}
+}
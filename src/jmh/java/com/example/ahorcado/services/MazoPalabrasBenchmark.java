@@ -0,0 +1,33 @@
+package com.example.ahorcado.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Rendimiento de elegir la siguiente palabra sin repetir. Robar del mazo debe costar lo mismo al principio que cuando
+ * casi todas las palabras ya se han jugado, y barajar de nuevo al acabarse no debe notarse en la media.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MazoPalabrasBenchmark {
+	@Param({"68", "10000", "1000000"})
+	private int palabras;
+
+	private MazoPalabras mazo;
+
+	@Setup
+	public void preparar() {
+		mazo = new MazoPalabras(IntStream.range(0, palabras).toArray());
+	}
+
+	@Benchmark
+	public int robar() {
+		return mazo.robar();
+	}
+}
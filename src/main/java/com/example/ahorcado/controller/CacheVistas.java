@@ -0,0 +1,76 @@
+package com.example.ahorcado.controller;
+
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Partes de la página del juego que no dependen de cada jugador y se generan una sola vez.
+ * El teclado solo cambia con las letras probadas y si la partida ha terminado, así que su HTML se guarda
+ * por esa combinación y los jugadores que han probado las mismas letras reciben el mismo texto ya generado.
+ */
+@Component
+public class CacheVistas {
+    private static final int MAX_TECLADOS = 4096; // Combinaciones de teclado guardadas, el resto se generan cada vez.
+    private static final int TERMINADA = 1 << ConjuntoLetras.ABECEDARIO.length(); // Bit de la clave para la partida terminada.
+    private static final List<Character> ABECEDARIO = ConjuntoLetras.ABECEDARIO.chars()
+            .mapToObj(letra -> (char) letra).toList();
+    private static final int IMAGENES = 7; // Una imagen por número de fallos, de 0 a 6.
+
+    private final ITemplateEngine plantillas;
+    private final ResourceUrlProvider recursos;
+    private final Map<Integer, String> teclados = new ConcurrentHashMap<>();
+    private volatile List<String> rutasImagenes;
+
+    public CacheVistas(ITemplateEngine plantillas, ResourceUrlProvider recursos) {
+        this.plantillas = plantillas;
+        this.recursos = recursos;
+    }
+
+    /**
+     * Obtiene el HTML del teclado, con las letras probadas ocultas.
+     *
+     * @param letrasProbadas Letras ya probadas.
+     * @param terminada      Si la partida ha terminado, entonces las teclas se desactivan.
+     * @return El HTML del teclado.
+     */
+    public String teclado(ConjuntoLetras letrasProbadas, boolean terminada) {
+        int clave = letrasProbadas.getBits() | (terminada ? TERMINADA : 0);
+        String teclado = teclados.get(clave);
+        if (teclado != null) return teclado;
+
+        Context contexto = new Context();
+        contexto.setVariable("abecedario", ABECEDARIO);
+        contexto.setVariable("letrasProbadas", new ConjuntoLetras(letrasProbadas.getBits()));
+        contexto.setVariable("juegoTerminado", terminada);
+        teclado = plantillas.process("fragmentos/teclado", Set.of("teclado"), contexto);
+        if (teclados.size() < MAX_TECLADOS) teclados.putIfAbsent(clave, teclado);
+        return teclado;
+    }
+
+    /**
+     * @return Rutas de las imágenes del ahorcado por número de fallos, con la huella de su contenido para que
+     * el navegador pueda guardarlas sin volver a preguntar.
+     */
+    public List<String> imagenes() {
+        List<String> rutas = rutasImagenes;
+        if (rutas == null) {
+            rutas = new ArrayList<>(IMAGENES);
+            for (int fallos = 0; fallos < IMAGENES; fallos++) {
+                String ruta = "/img/" + fallos + ".jpg";
+                String conHuella = recursos.getForLookupPath(ruta);
+                rutas.add(conHuella != null ? conHuella : ruta);
+            }
+            rutasImagenes = rutas = List.copyOf(rutas);
+        }
+        return rutas;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ahorcado.controller;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sirve las hojas de estilo, los scripts y las imágenes con la huella (MD5) de su contenido en el nombre,
+ * por ejemplo /css/ahorcado-0f3c...css. Las plantillas escriben las rutas sin huella con {@code @{...}} y se
+ * traducen solas. Una ruta con huella nunca cambia de contenido, así que el navegador la guarda un año sin volver
+ * a preguntar; las rutas sin huella se revalidan siempre y responden 304 si no han cambiado.
+ * La compresión gzip de las respuestas se activa en application.properties.
+ */
+@Configuration
+public class ConfiguracionRecursos implements WebMvcConfigurer {
+    private static final String[] CARPETAS = {"css", "js", "img"};
+    private static final String RUTA_CON_HUELLA = "/{carpeta:css|js|img}/{fichero:.+-[0-9a-f]{32}\\.[a-z0-9]+}";
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(RUTA_CON_HUELLA)
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(huellaContenido());
+
+        for (String carpeta : CARPETAS) {
+            registry.addResourceHandler("/" + carpeta + "/**")
+                    .addResourceLocations("classpath:/static/" + carpeta + "/")
+                    .setCacheControl(CacheControl.noCache())
+                    .resourceChain(true)
+                    .addResolver(huellaContenido());
+        }
+
+        // Las rutas de las webjars llevan su versión (/webjars/jquery/3.6.4/...), tampoco cambian nunca
+        registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true);
+    }
+
+    private static VersionResourceResolver huellaContenido() {
+        return new VersionResourceResolver().addContentVersionStrategy("/**");
+    }
+
+    /**
+     * Traduce las rutas de las plantillas a sus rutas con huella.
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    /**
+     * Añade un ETag a las respuestas que no cambian de una visita a otra y responde 304 si el navegador ya las tiene.
+     * No se aplica a las páginas con formularios, su token CSRF cambia en cada respuesta.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etags() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registro.addUrlPatterns("/home", "/css/*", "/js/*", "/img/*");
+        return registro;
+    }
+}
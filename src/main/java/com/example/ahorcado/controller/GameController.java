@@ -1,11 +1,34 @@
 package com.example.ahorcado.controller;
 
+import com.example.ahorcado.metricas.MetricasJuego;
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.EventoPartida;
+import com.example.ahorcado.persistencia.RegistroEventos;
+import com.example.ahorcado.security.TokenPartida;
+import com.example.ahorcado.services.CanalEventos;
+import com.example.ahorcado.services.Clasificacion;
+import com.example.ahorcado.services.Diccionario;
+import com.example.ahorcado.services.EstadoPartida;
 import com.example.ahorcado.services.Game;
 import com.example.ahorcado.services.GameStats;
+import com.example.ahorcado.services.InstantaneaPartida;
+import com.example.ahorcado.services.MazoPalabras;
+import com.example.ahorcado.services.RegistroPartidas;
+import com.example.ahorcado.services.RegistroSalas;
+import com.example.ahorcado.services.ResultadosDiferidos;
+import com.example.ahorcado.services.RuedaTemporizadores;
+import com.example.ahorcado.services.Sala;
+import com.example.ahorcado.services.SeguimientoPartidas;
+import com.example.ahorcado.services.SelectorPalabras;
 import com.example.ahorcado.utilidades.Utilidades;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,10 +39,18 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Controlador que maneja las solicitudes relacionadas con el juego.
@@ -27,21 +58,60 @@ import java.util.Objects;
 @Controller
 @Slf4j
 public class GameController {
-    private Game partida;
+    private static final String MAZO = "mazoPalabras";
+    private static final String CRITERIO = "criterioPalabras";
+    private static final String SALA = "salaPartida";
+    private static final String CANAL_SALA = "sala:";
+    private static final String COOKIE_PARTIDA = "partida";
+    private static final String COOKIE_MAZO = "mazo";
+    private static final String ROL = GameController.class.getName() + ".rol";
+    @Autowired
+    private RegistroPartidas partidas;
+    @Autowired
+    private RegistroSalas salas;
     @Autowired
     private GameStats estadisticas;
+    @Autowired
+    private SelectorPalabras selector;
+    @Autowired
+    private CanalEventos eventos;
+    @Autowired
+    private EscrituraDiferida escritura;
+    @Autowired
+    private RegistroEventos registroEventos;
+    @Autowired
+    private TokenPartida tokens;
+    @Autowired
+    private Diccionario diccionario;
+    @Autowired
+    private MetricasJuego metricas;
+    @Autowired
+    private CacheVistas vistas;
+    @Autowired
+    private Clasificacion clasificacion;
+    @Autowired
+    private RuedaTemporizadores rueda;
+    @Autowired
+    private SeguimientoPartidas seguimiento;
+    @Autowired
+    private ResultadosDiferidos resultados;
+    @Value("${ahorcado.temporizador.perezoso:false}")
+    private boolean temporizadorPerezoso;
 
     /**
      * Maneja los datos y la logica dependiendo si la partida es de admin, estandar o de 2 jugadores,
      * mostrando información relevante segun que tipo de partida sea.
      *
+     * @param session  Sesión del jugador, identifica su partida.
      * @param response Objeto de respuesta HTTP para gestionar las cookies.
      * @param model    El modelo que se utiliza para renderizar la vista.
-     * @return La vista "ahorcado" para mostrar el juego.
+     * @return La vista "ahorcado" para mostrar el juego, o el formulario de palabra si la sala aún no tiene partida.
      */
     @GetMapping({"/ahorcado", "/ahorca2"})
-    public String inicio(HttpServletResponse response, Model model) {
-        if (partida == null) partida = new Game();
+    public String inicio(HttpSession session, HttpServletResponse response, Model model) {
+        Sala sala = salaDe(session);
+        if (sala != null && sala.getPartida() == null) return "redirect:/ahorca2/nuevaPartida";
+        Game partida = partidaActual(session);
 
         // Comprueba si el juego sigue en progreso o ha terminado por exceso de fallos.
         if (!partida.demasiadosFallos()) {
@@ -52,45 +122,45 @@ public class GameController {
             //Si los hay muestra un mensaje de que ha perdido y muestra la palabra completa
             model.addAttribute("finalizar", "Vaya, has perdido. La palabra era:");
             model.addAttribute("palabraOculta", partida.getPalabra());
-
-            if (isAdmin()) estadisticas.fallarPalabra(partida.getPalabra()); //Añade la palabra fallada a las stats del admin
         }
 
         // Comprueba si la partida ha finalizado al acertar la palabra y muestra un mensaje de felicitación.
         if (partida.palabraDescubierta()) {
             model.addAttribute("finalizar", "¡Enhorabuena! Palabra correcta");
-
-            if (isAdmin()) estadisticas.acertarPalabra(partida.getPalabra()); // Añade la palabra acertada a las stats del admin
         }
 
         //Si la partida es de 2 jugadores y está terminada se establece la puntuación
         if (partida.isPartidaTerminada() && partida.isAhorca2()) partida.establecerPuntuacion();
 
-        //Si la partida es de 2 jugadores muestra la puntuacion de ambos
-        if (partida.isAhorca2()) {
-            model.addAttribute("jugador1", Game.puntosJugador1);
-            model.addAttribute("jugador2", Game.puntosJugador2);
+        //Si la partida es de 2 jugadores muestra la puntuacion de ambos en su sala
+        if (partida.getSala() != null) {
+            model.addAttribute("jugador1", partida.getSala().getPuntosJugador1());
+            model.addAttribute("jugador2", partida.getSala().getPuntosJugador2());
+            model.addAttribute("sala", partida.getSala().getId());
         }
 
-        //Si la partida es de admin añade las letras acertadas y falladas a sus stats
-        if (partida.isPartidaTerminada() && isAdmin()) {
-            estadisticas.addAciertos(partida.getLetrasAcertadas());
-            estadisticas.addFallos(partida.getLetrasFalladas());
-        }
+        //Si la partida es de admin añade el resultado y las letras acertadas y falladas a sus stats (solo una vez por partida)
+        if (partida.isPartidaTerminada() && isAdmin()) resultados.registrarFinal(partida);
 
 
         // Actualiza el modelo con la información relevante.
-        model.addAttribute("abecedario", obtenerAbecedario());
         model.addAttribute("pista", partida.getPista());
-        model.addAttribute("letrasProbadas", partida.getLetrasProbadas());//Lista que indica cuáles letras no se mostrarán en el teclado
+        //Teclado ya generado, sin las letras probadas
+        model.addAttribute("teclado", vistas.teclado(partida.getLetrasProbadas(), partida.isPartidaTerminada()));
+        model.addAttribute("imagenes", vistas.imagenes());
+        model.addAttribute("fallos", partida.getFallos());
 
         if (isAdmin()) {
             model.addAttribute("partida", partida);
-            model.addAttribute("stats", estadisticas);
+            model.addAttribute("stats", estadisticas.resumen());
         }
 
         //Generamos la cookie de fallos (la imagen dependera de esta cookie)
         Utilidades.generarCookieFallos(partida.getFallos(), response);
+        recordar(partida, response);
+
+        //Segundos que le quedan al turno para iniciar la cuenta atrás de la página
+        model.addAttribute("segundosRestantes", (partida.milisegundosRestantesTurno() + 999) / 1000);
 
         //Añadimos el chivato de si la partida termino para mostrar el boton de nueva partida
         model.addAttribute("juegoTerminado", partida.isPartidaTerminada());
@@ -102,101 +172,411 @@ public class GameController {
      * Maneja la solicitud GET para adivinar una palabra en el juego.
      *
      * @param intentoPalabra La palabra a adivinar.
+     * @param session        Sesión del jugador, identifica su partida.
+     * @param response       Objeto de respuesta HTTP para actualizar el token de la partida.
      * @return La vista parcial "fragmentos/palabraOculta :: palabraOculta" para actualizar la palabra oculta en la página.
      */
     @PostMapping("/adivinar")
-    public String adivinar(@RequestParam("intentoPalabra") String intentoPalabra) {
+    public String adivinar(@RequestParam("intentoPalabra") String intentoPalabra, HttpSession session,
+                           HttpServletResponse response) {
+        Game partida = partidaActual(session);
         partida.probarPalabra(intentoPalabra);
+        recordar(partida, response);
         return "redirect:/ahorcado";
     }
 
     /**
      * Maneja la solicitud para adivinar una letra en el juego.
      *
-     * @param letra La letra a adivinar.
-     * @param model El modelo que se utiliza para actualizar la vista.
+     * @param letra   La letra a adivinar.
+     * @param session  Sesión del jugador, identifica su partida.
+     * @param response Objeto de respuesta HTTP para actualizar el token de la partida.
+     * @param model    El modelo que se utiliza para actualizar la vista.
      * @return La vista parcial "fragmentos/palabraOculta :: palabraOculta" para actualizar la palabra oculta en la página.
      */
     @GetMapping("/adivinar/{letra}")
-    public String adivinarLetra(@PathVariable("letra") char letra, Model model) {
+    public String adivinarLetra(@PathVariable("letra") char letra, HttpSession session, HttpServletResponse response,
+                                Model model) {
+        Timer.Sample muestra = Timer.start();
+        Game partida = partidaActual(session);
         partida.probarLetra(letra);
+        recordar(partida, response);
         model.addAttribute("palabraOculta", partida.obtenerPalabraOculta());
+        muestra.stop(metricas.getIntentoLetra());
         return "fragmentos/palabraOculta :: palabraOculta";
     }
 
+    /**
+     * Prueba una letra y devuelve en JSON el estado completo de la partida, para que la página se actualice
+     * sin recargarse.
+     *
+     * @param letra    La letra a adivinar.
+     * @param session  Sesión del jugador, identifica su partida.
+     * @param response Objeto de respuesta HTTP para actualizar la cookie de fallos.
+     * @return El estado de la partida tras probar la letra.
+     */
+    @GetMapping("/api/adivinar/{letra}")
+    @ResponseBody
+    public EstadoPartida adivinarLetraJson(@PathVariable("letra") char letra, HttpSession session, HttpServletResponse response) {
+        Timer.Sample muestra = Timer.start();
+        Game partida = partidaActual(session);
+        partida.probarLetra(letra);
+        EstadoPartida estado = estado(partida, response);
+        muestra.stop(metricas.getIntentoLetraJson());
+        return estado;
+    }
+
+    /**
+     * Devuelve en JSON el estado de la partida, se consulta al agotarse el turno.
+     *
+     * @param session  Sesión del jugador, identifica su partida.
+     * @param response Objeto de respuesta HTTP para actualizar la cookie de fallos.
+     * @return El estado actual de la partida.
+     */
+    @GetMapping("/api/estado")
+    @ResponseBody
+    public EstadoPartida estadoJson(HttpSession session, HttpServletResponse response) {
+        Game partida = partidaActual(session);
+        return estado(partida, response);
+    }
+
+    /**
+     * Devuelve en JSON los primeros jugadores de la clasificación de partidas individuales.
+     *
+     * @param n Número de jugadores, como mucho 100.
+     * @return Los jugadores en orden, con sus victorias, derrotas y rachas.
+     */
+    @GetMapping("/api/clasificacion")
+    @ResponseBody
+    public List<Clasificacion.EstadisticasJugador> clasificacion(@RequestParam(value = "n", defaultValue = "100") int n) {
+        return clasificacion.primeros(Math.max(0, Math.min(n, 100)));
+    }
+
+    /**
+     * Devuelve en JSON las estadísticas del jugador autenticado.
+     *
+     * @return Sus victorias, derrotas y rachas.
+     */
+    @GetMapping("/api/clasificacion/yo")
+    @ResponseBody
+    public Clasificacion.EstadisticasJugador miClasificacion() {
+        return clasificacion.de(obtenerUsuario());
+    }
+
+    /**
+     * Devuelve en JSON los eventos guardados de una partida, para que el administrador pueda revisarla.
+     *
+     * @param id Identificador de la partida.
+     * @return Los eventos de la partida en orden.
+     */
+    @GetMapping("/api/partidas/{id}/eventos")
+    @ResponseBody
+    public List<EventoPartida> historial(@PathVariable("id") long id) {
+        if (!isAdmin()) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        return registroEventos.historial(id);
+    }
+
+    /**
+     * Reproduce los eventos guardados de una partida y devuelve en JSON su estado tras el último, para que el
+     * administrador pueda resolver una reclamación.
+     *
+     * @param id Identificador de la partida.
+     * @return El estado de la partida, sin la pista.
+     */
+    @GetMapping("/api/partidas/{id}/estado")
+    @ResponseBody
+    public InstantaneaPartida reproduccion(@PathVariable("id") long id) {
+        if (!isAdmin()) throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        return registroEventos.reproducir(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Suscribe el navegador a los cambios de su partida (turnos agotados, intentos y puntuación),
+     * que se envían como eventos con el estado de la partida en JSON.
+     *
+     * @param session Sesión del jugador, identifica su partida o su sala.
+     * @return La conexión de eventos.
+     */
+    @GetMapping("/eventos")
+    @ResponseBody
+    public SseEmitter eventos(HttpSession session) {
+        Sala sala = salaDe(session);
+        return eventos.suscribir(sala != null ? CANAL_SALA + sala.getId() : session.getId());
+    }
+
     /**
      * Maneja la solicitud para iniciar una nueva partida del juego.
      * Si el usuario es Admin se guarda la palabra en sus Stats.
+     * Si llegan los filtros del formulario de palabra se guardan en la sesión (con los tokens de partida activos, en el
+     * token del mazo) y se usan en esta y las siguientes partidas, si no se usan los últimos elegidos. Elegir filtros saca al jugador de su sala de 2 jugadores.
      *
-     * @return Si ahorca2 está activo redirige al formulario de palabra si no redirige al juego estandar.
+     * @param dificultad Dificultad de la palabra, vacío para cualquiera.
+     * @param categoria  Categoría de la palabra, vacío para cualquiera.
+     * @param longitud   Longitud de la palabra, vacío para cualquiera.
+     * @param session    Sesión del jugador, identifica su partida.
+     * @param response   Objeto de respuesta HTTP para guardar el token de la nueva partida.
+     * @return Si el jugador está en una sala juega la siguiente palabra de la cola o, si no hay, redirige al formulario
+     * de palabra. Si no redirige al juego estandar.
      */
     @GetMapping("/nuevaPartida")
-    public String nuevaPartida() {
-        if (partida.isAhorca2()){
-            return "redirect:/ahorca2/nuevaPartida";
+    public String nuevaPartida(@RequestParam(name = "dificultad", required = false) SelectorPalabras.Dificultad dificultad,
+                               @RequestParam(name = "categoria", required = false) String categoria,
+                               @RequestParam(name = "longitud", required = false) SelectorPalabras.Longitud longitud,
+                               HttpSession session, HttpServletResponse response) {
+        SelectorPalabras.Criterio elegido = null;
+        if (categoria != null) {
+            String filtroCategoria = categoria.isBlank() ? null : categoria.toLowerCase(Locale.ROOT);
+            elegido = new SelectorPalabras.Criterio(dificultad, filtroCategoria, longitud);
+            if (!tokens.isActivo()) session.setAttribute(CRITERIO, elegido);
+            session.removeAttribute(SALA);
         }
 
-        partida = new Game();
+        Sala sala = salaDe(session);
+        if (sala != null) {
+            if (!sala.hayPropuestas()) return "redirect:/ahorca2/nuevaPartida";
+            sala.empezarSiguiente(fabricaSala(sala));
+            return "redirect:/ahorca2";
+        }
+
+        Game partida = partidaNueva(session, elegido);
+        if (tokens.isActivo()) recordar(partida, response);
+        else partidas.guardar(session.getId(), partida);
         if (isAdmin()) estadisticas.nuevaPartida(partida.getPalabra());
 
         return "redirect:/ahorcado";
     }
 
     /**
-     * Desactiva el chivato de 2 jugadores, borra los datos de la anterior partida
+     * Saca al jugador de su sala de 2 jugadores y borra los datos de la anterior partida.
+     * La sala sigue abierta para los demás jugadores con su puntuación.
      * @return Página de Eleccion de partidas
      */
     @GetMapping("/salir")
-    public String salir(HttpServletResponse response) {
-        partida = null;
-        Game.puntosJugador1 = 0;
-        Game.puntosJugador2 = 0;
-        Game.turno = 1;
+    public String salir(HttpSession session, HttpServletResponse response) {
+        partidas.eliminar(session.getId());
+        eliminarPartidaGuardada();
+        session.removeAttribute(SALA);
         Utilidades.generarCookieFallos(0, response);
+        if (tokens.isActivo()) Utilidades.generarCookiePartida(null, response);
         return "redirect:/home";
     }
 
     /**
-     * Muestra el formulario para introducir palabra y pista
+     * Muestra el formulario para introducir palabra y pista. Si el jugador no está en ninguna sala se le crea una.
      * @return Pagina con formulario
      */
     @GetMapping("/ahorca2/nuevaPartida")
-    public String form2jugadores(Model model) {
-        if (Game.turno % 2 != 0) {
+    public String form2jugadores(HttpSession session, Model model) {
+        Sala sala = salaDe(session);
+        if (sala == null) sala = entrarEnSala(session, salas.crear());
+
+        if (sala.getTurno() % 2 != 0) {
             model.addAttribute("jugador2", "Jugador 2");
         }
+        model.addAttribute("sala", sala.getId());
 
         return "ahorca2";
     }
 
     /**
-     * Inicia una nueva partida con la palabra y pista del usuario
+     * Crea una sala nueva, con la puntuación a cero, y mete en ella al jugador.
+     * @param session Sesión del jugador.
+     * @return Formulario de palabra de la nueva sala
+     */
+    @PostMapping("/ahorca2/salas")
+    public String crearSala(HttpSession session) {
+        entrarEnSala(session, salas.crear());
+        return "redirect:/ahorca2/nuevaPartida";
+    }
+
+    /**
+     * Une al jugador a una sala existente para jugar su partida actual.
+     * @param codigo Código de la sala.
+     * @param session Sesión del jugador.
+     * @return El juego de la sala, o su formulario de palabra si aún no tiene partida
+     */
+    @PostMapping("/ahorca2/unirse")
+    public String unirseSala(@RequestParam("codigo") String codigo, HttpSession session) {
+        Sala sala = salas.obtener(codigo);
+        if (sala == null) return "redirect:/ahorca2/nuevaPartida?salaNoExiste";
+
+        entrarEnSala(session, sala);
+        return sala.getPartida() != null ? "redirect:/ahorca2" : "redirect:/ahorca2/nuevaPartida";
+    }
+
+    /**
+     * Añade la palabra y pista del usuario a la cola de su sala. Si la sala no tiene una partida en juego empieza con ella.
      * @param nuevaPalabra Palabra del usuario
      * @param nuevaPista Pista del usuario
+     * @param session Sesión del jugador, identifica su sala.
      * @return Pagina del juego
      */
     @PostMapping("/ahorca2/submit")
     public String ahorca2submit(@RequestParam("nuevaPalabra") String nuevaPalabra,
-                                @RequestParam("nuevaPista") String nuevaPista) {
-        partida = new Game(nuevaPalabra.toUpperCase(), nuevaPista);
+                                @RequestParam("nuevaPista") String nuevaPista,
+                                HttpSession session) {
+        Sala sala = salaDe(session);
+        if (sala == null) sala = entrarEnSala(session, salas.crear());
+
+        sala.proponer(nuevaPalabra.toUpperCase(), nuevaPista);
+        sala.empezarSiguiente(fabricaSala(sala));
 
         return "redirect:/ahorca2";
     }
 
 
     /**
-     * Genera y retorna una lista que contiene el abecedario en mayúsculas, desde la letra 'A' hasta 'Z', incluyendo la letra 'Ñ'.
-     *
-     * @return Una lista de caracteres que representa el abecedario completo en mayúsculas.
+     * Obtiene la partida que está jugando el jugador: la de su sala si está en una que ya tenga partida,
+     * si no su partida individual. Si su sesión no tiene partida se recupera la que tuviera guardada o se crea una.
+     * Con los tokens de partida activos la partida individual se reconstruye del token que envía el navegador.
+     * @param session Sesión del jugador.
+     * @return La partida actual del jugador
      */
-    private List<Character> obtenerAbecedario() {
-        List<Character> abecedario = new ArrayList<>();
-        for (char letra = 'A'; letra <= 'Z'; letra++) {
-            abecedario.add(letra);
+    private Game partidaActual(HttpSession session) {
+        Sala sala = salaDe(session);
+        Game partida = sala != null ? sala.getPartida() : null;
+        if (partida != null) return partida;
+
+        if (tokens.isActivo()) {
+            HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+            return tokens.decodificar(Utilidades.leerCookie(request, COOKIE_PARTIDA), obtenerUsuario(), diccionario.actual())
+                    .orElseGet(() -> partidaNueva(session, null));
+        }
+        return partidas.obtenerOCrear(session.getId(), () -> partidaRecuperada(session));
+    }
 
-            if (letra == 'N') abecedario.add('Ñ');
+    /**
+     * Si la partida individual ha terminado suma su resultado a la clasificación del jugador (una sola vez) y la guarda
+     * marcada como registrada. Con los tokens de partida activos además la guarda en el token del navegador.
+     * @param partida Partida a guardar.
+     * @param response Objeto de respuesta HTTP para generar la cookie del token.
+     */
+    private void recordar(Game partida, HttpServletResponse response) {
+        String jugador = obtenerUsuario();
+        if (partida.getSala() == null && jugador != null) {
+            clasificacion.registrar(jugador, partida);
+            // Se vuelve a guardar con las marcas de ya registrada, la copia del oyente es de antes de registrarla
+            if (partida.isPartidaTerminada()) escritura.guardarPartida(jugador, InstantaneaPartida.de(partida));
         }
-        return abecedario;
+        if (tokens.isActivo() && partida.getSala() == null && partida.getIndicePalabra() >= 0) {
+            Utilidades.generarCookiePartida(tokens.codificar(partida, jugador), response);
+        }
+    }
+
+    /**
+     * @return La rueda en la que se programan los turnos de las partidas, null con el temporizador perezoso.
+     */
+    private RuedaTemporizadores ruedaTurnos() {
+        return temporizadorPerezoso ? null : rueda;
+    }
+
+    /**
+     * Recupera la última partida individual guardada del jugador, por ejemplo tras reiniciarse el servidor.
+     * @param session Sesión del jugador.
+     * @return La partida guardada, o una nueva si no tiene ninguna
+     */
+    private Game partidaRecuperada(HttpSession session) {
+        String jugador = obtenerUsuario();
+        Optional<InstantaneaPartida> guardada = jugador != null ? escritura.cargarPartida(jugador) : Optional.empty();
+        if (guardada.isEmpty()) return partidaNueva(session, null);
+
+        return seguimiento.seguir(new Game(guardada.get(), ruedaTurnos()), session.getId(), jugador);
+    }
+
+    /**
+     * Elimina la partida individual guardada del jugador.
+     */
+    private void eliminarPartidaGuardada() {
+        String jugador = obtenerUsuario();
+        if (jugador != null) escritura.eliminarPartida(jugador);
+    }
+
+    /**
+     * @param session Sesión del jugador.
+     * @return La sala de 2 jugadores en la que está el jugador, null si no está en ninguna o se ha cerrado.
+     */
+    private Sala salaDe(HttpSession session) {
+        return salas.obtener((String) session.getAttribute(SALA));
+    }
+
+    /**
+     * Mete al jugador en la sala, su partida individual deja de jugarse.
+     * @param session Sesión del jugador.
+     * @param sala Sala a la que entra.
+     * @return La misma sala
+     */
+    private Sala entrarEnSala(HttpSession session, Sala sala) {
+        session.setAttribute(SALA, sala.getId());
+        partidas.eliminar(session.getId());
+        eliminarPartidaGuardada();
+        return sala;
+    }
+
+    /**
+     * @param sala Sala de 2 jugadores.
+     * @return Crea las partidas de las palabras propuestas en la sala, publicando sus cambios en el canal de la sala.
+     */
+    private Function<Sala.Propuesta, Game> fabricaSala(Sala sala) {
+        return propuesta -> seguimiento.seguir(new Game(propuesta.palabra(), propuesta.pista(), sala, ruedaTurnos()),
+                CANAL_SALA + sala.getId(), null);
+    }
+
+    /**
+     * Obtiene el estado de la partida y actualiza la cookie de fallos para que coincida si se recarga la página.
+     * @param partida Partida a consultar.
+     * @param response Objeto de respuesta HTTP para gestionar las cookies.
+     * @return El estado de la partida
+     */
+    private EstadoPartida estado(Game partida, HttpServletResponse response) {
+        EstadoPartida estado = EstadoPartida.de(partida);
+        Utilidades.generarCookieFallos(estado.fallos(), response);
+        recordar(partida, response);
+        return estado;
+    }
+
+    /**
+     * Crea una partida individual con el modo de temporizador configurado.
+     * La palabra se roba del mazo del jugador, que se guarda en su sesión junto a los filtros de palabra elegidos.
+     * Con los tokens de partida activos el mazo y los filtros viajan en el token del mazo en lugar de en la sesión,
+     * y el temporizador siempre es perezoso, la partida no se queda en el servidor.
+     * @param session Sesión del jugador.
+     * @param elegido Filtros de palabra que acaba de elegir el jugador, null para seguir con los últimos.
+     * @return La nueva partida
+     */
+    private Game partidaNueva(HttpSession session, SelectorPalabras.Criterio elegido) {
+        Timer.Sample muestra = Timer.start();
+        int indice;
+        SelectorPalabras.Seleccion seleccion;
+        if (tokens.isActivo()) {
+            ServletRequestAttributes peticion = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+            String jugador = obtenerUsuario();
+            Optional<TokenPartida.MazoGuardado> guardado = elegido != null ? Optional.empty()
+                    : tokens.decodificarMazo(Utilidades.leerCookie(peticion.getRequest(), COOKIE_MAZO), jugador);
+            SelectorPalabras.Criterio criterio = elegido != null ? elegido
+                    : guardado.map(TokenPartida.MazoGuardado::criterio).orElse(SelectorPalabras.Criterio.TODAS);
+            seleccion = selector.candidatas(criterio);
+
+            MazoPalabras mazo = guardado.flatMap(g -> MazoPalabras.restaurar(seleccion.indices(), g.mazo()))
+                    .orElseGet(() -> new MazoPalabras(seleccion.indices()));
+            indice = mazo.robar();
+            if (peticion.getResponse() != null) {
+                Utilidades.generarCookieMazo(tokens.codificarMazo(criterio, mazo, jugador), peticion.getResponse());
+            }
+        } else {
+            SelectorPalabras.Criterio criterio = (SelectorPalabras.Criterio) session.getAttribute(CRITERIO);
+            seleccion = selector.candidatas(criterio != null ? criterio : SelectorPalabras.Criterio.TODAS);
+
+            MazoPalabras mazo = (MazoPalabras) session.getAttribute(MAZO);
+            if (mazo == null || !mazo.esDe(seleccion.indices())) {
+                mazo = new MazoPalabras(seleccion.indices());
+                session.setAttribute(MAZO, mazo);
+            }
+            indice = mazo.robar();
+        }
+        muestra.stop(metricas.getSeleccionPalabra());
+
+        Game partida = new Game(seleccion.corpus(), indice, tokens.isActivo() ? null : ruedaTurnos());
+        return seguimiento.seguir(partida, session.getId(), obtenerUsuario());
     }
 
     /**
@@ -208,21 +588,37 @@ public class GameController {
     }
 
     /**
-     * Obtiene el rol del usuario autenticado
-     * @return Un String del rol.
+     * Obtiene el nombre del usuario autenticado
+     * @return El nombre del usuario o null si no está autenticado.
+     */
+    private String obtenerUsuario() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Obtiene el rol del usuario autenticado. Se calcula una vez por petición y se guarda en ella,
+     * ya que una misma petición lo consulta varias veces.
+     * @return Un String del rol, o null si no está autenticado.
      */
     private String obtenerRol() {
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        Object rol = peticion != null ? peticion.getAttribute(ROL, RequestAttributes.SCOPE_REQUEST) : null;
+        if (rol == null) {
+            rol = Objects.requireNonNullElse(rolAutenticado(), "");
+            if (peticion != null) peticion.setAttribute(ROL, rol, RequestAttributes.SCOPE_REQUEST);
+        }
+        return ((String) rol).isEmpty() ? null : (String) rol;
+    }
+
+    private static String rolAutenticado() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         // Verifica si el usuario está autenticado
-        if (authentication.isAuthenticated() && authentication.getPrincipal() instanceof UserDetails) {
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-            // Obtiene los roles del usuario
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            // Obtiene el rol del usuario, solo tiene uno
             for (GrantedAuthority authority : userDetails.getAuthorities()) {
-                String userRole = authority.getAuthority();
-
-                return userRole;
+                return authority.getAuthority();
             }
         }
         return null;
@@ -1,18 +1,27 @@
 package com.example.ahorcado.controller;
 
+import com.example.ahorcado.services.SelectorPalabras;
 import com.example.ahorcado.utilidades.Utilidades;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Slf4j
 @Controller
 public class HomeController {
+    @Autowired
+    private SelectorPalabras selector;
 
     @GetMapping("/home")
-    public String home(HttpServletResponse response) {
+    public String home(HttpServletResponse response, Model model) {
         Utilidades.generarCookieFallos(0, response);
+        //Opciones del formulario para elegir el tipo de palabra
+        model.addAttribute("dificultades", SelectorPalabras.Dificultad.values());
+        model.addAttribute("categorias", selector.categorias());
+        model.addAttribute("longitudes", SelectorPalabras.Longitud.values());
         return "home";
     }
 }
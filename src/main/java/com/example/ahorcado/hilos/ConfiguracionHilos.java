@@ -0,0 +1,63 @@
+package com.example.ahorcado.hilos;
+
+import com.example.ahorcado.services.RuedaTemporizadores;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Con {@code ahorcado.hilos.virtuales=true} las peticiones, las tareas programadas y los turnos agotados de la rueda
+ * de temporizadores se atienden en hilos virtuales. Un hilo esperando (comprobar una contraseña, escribir en disco)
+ * ya no ocupa un hilo del sistema, así que no hace falta dimensionar el pool de Tomcat para miles de jugadores.
+ * Necesita Java 21 o posterior; con una versión anterior se avisa y se siguen usando hilos normales.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ahorcado.hilos.virtuales", havingValue = "true")
+@Slf4j
+public class ConfiguracionHilos {
+    private final Optional<ExecutorService> peticiones = HilosVirtuales.ejecutor("peticion-");
+
+    public ConfiguracionHilos() {
+        if (peticiones.isEmpty()) {
+            log.warn("ahorcado.hilos.virtuales está activo pero Java {} no tiene hilos virtuales, se usan hilos normales",
+                    Runtime.version().feature());
+            return;
+        }
+        log.info("Peticiones, tareas programadas y turnos agotados en hilos virtuales");
+    }
+
+    /**
+     * Tomcat atiende cada petición en un hilo virtual nuevo en lugar de en su pool de hilos.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> peticionesEnHilosVirtuales() {
+        return protocolo -> peticiones.ifPresent(protocolo::setExecutor);
+    }
+
+    /**
+     * Los turnos agotados de la rueda de temporizadores se ejecutan cada uno en un hilo virtual nuevo, así un oyente
+     * lento no retrasa los demás turnos. Se aplica al crear este bean, antes de que arranque la aplicación.
+     */
+    @Bean
+    public InitializingBean turnosEnHilosVirtuales(RuedaTemporizadores rueda) {
+        return () -> HilosVirtuales.ejecutor("turno-").ifPresent(rueda::setEjecutor);
+    }
+
+    /**
+     * Planificador de las tareas {@code @Scheduled} (purgas, escritura diferida, recarga del diccionario...).
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler planificador = new ThreadPoolTaskScheduler();
+        planificador.setThreadNamePrefix("programada-");
+        HilosVirtuales.fabrica("programada-").ifPresent(planificador::setThreadFactory);
+        return planificador;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ahorcado.hilos;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Acceso a los hilos virtuales. La aplicación se compila para Java 17, que no los tiene, así que se buscan al
+ * ejecutar: con Java 21 o posterior se usan y con versiones anteriores se sigue con hilos normales.
+ */
+public final class HilosVirtuales {
+
+    private HilosVirtuales() {
+    }
+
+    /**
+     * @return true si la máquina virtual tiene hilos virtuales.
+     */
+    public static boolean disponibles() {
+        return fabrica("comprobacion-").isPresent();
+    }
+
+    /**
+     * Crea una fábrica de hilos virtuales con nombre.
+     *
+     * @param prefijo Prefijo del nombre de los hilos, seguido de un número.
+     * @return La fábrica, vacío si la máquina virtual no tiene hilos virtuales.
+     */
+    public static Optional<ThreadFactory> fabrica(String prefijo) {
+        try {
+            // Se invoca a través de la interfaz pública Thread.Builder, la implementación no es accesible
+            Class<?> constructor = Class.forName("java.lang.Thread$Builder");
+            Object virtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            virtual = constructor.getMethod("name", String.class, long.class).invoke(virtual, prefijo, 0L);
+            return Optional.of((ThreadFactory) constructor.getMethod("factory").invoke(virtual));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Crea un ejecutor que lanza un hilo virtual por tarea.
+     *
+     * @param prefijo Prefijo del nombre de los hilos.
+     * @return El ejecutor, vacío si la máquina virtual no tiene hilos virtuales.
+     */
+    public static Optional<ExecutorService> ejecutor(String prefijo) {
+        Optional<ThreadFactory> fabrica = fabrica(prefijo);
+        if (fabrica.isEmpty()) return Optional.empty();
+        try {
+            // Los hilos virtuales no se reutilizan, cada tarea lleva el suyo
+            Method porTarea = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) porTarea.invoke(null, fabrica.get()));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
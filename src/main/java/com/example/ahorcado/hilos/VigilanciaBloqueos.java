@@ -0,0 +1,163 @@
+package com.example.ahorcado.hilos;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.services.EstadoPartida;
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.SeguimientoPartidas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Vigila con Java Flight Recorder que ningún hilo virtual se quede esperando anclado a su hilo del sistema
+ * (por ejemplo, esperando dentro de un bloque synchronized), lo que anularía la ventaja de los hilos virtuales.
+ * Al arrancar recorre en hilos virtuales el camino de una petición de juego, con el mismo oyente que las partidas de
+ * los jugadores, y si algo se ancla, por poco que sea, la aplicación no arranca: el modo de hilos virtuales no se usa
+ * con un camino que lo anula. Después sigue contando los anclajes que superan el umbral en la métrica
+ * ahorcado.hilos.bloqueos y registra cada sitio la primera vez.
+ */
+@Component
+@ConditionalOnProperty(name = "ahorcado.hilos.virtuales", havingValue = "true")
+@Slf4j
+public class VigilanciaBloqueos {
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int MAX_MARCOS = 8; // Marcos de la pila que se muestran de cada anclaje.
+    private static final String JUGADOR = "#comprobacion"; // Jugador de la partida de comprobación, no es una cuenta.
+
+    private final PasswordEncoder codificador;
+    private final SeguimientoPartidas seguimiento;
+    private final EscrituraDiferida escritura;
+    private final Counter bloqueos;
+    private final long umbralMs;
+    private final Set<String> sitiosVistos = ConcurrentHashMap.newKeySet();
+    private RecordingStream grabacion;
+
+    public VigilanciaBloqueos(PasswordEncoder codificador, SeguimientoPartidas seguimiento, EscrituraDiferida escritura,
+                              MeterRegistry registro, @Value("${ahorcado.hilos.umbral-bloqueo-ms:20}") long umbralMs) {
+        this.codificador = codificador;
+        this.seguimiento = seguimiento;
+        this.escritura = escritura;
+        this.umbralMs = umbralMs;
+        this.bloqueos = Counter.builder("ahorcado.hilos.bloqueos")
+                .description("Veces que un hilo virtual ha esperado anclado a su hilo del sistema").register(registro);
+    }
+
+    /**
+     * Comprueba el camino de las peticiones y empieza a vigilar los anclajes.
+     *
+     * @throws IllegalStateException Si la comprobación ancla algún hilo virtual, así la aplicación no llega a arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        ThreadFactory fabrica = HilosVirtuales.fabrica("comprobacion-").orElse(null);
+        if (fabrica == null) return;
+
+        AtomicInteger anclajes = new AtomicInteger();
+        Thread comprobacion = fabrica.newThread(() -> comprobar(fabrica, anclajes));
+        comprobacion.start();
+        try {
+            comprobacion.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (anclajes.get() > 0) {
+            throw new IllegalStateException("El camino de las peticiones ancla hilos virtuales a su hilo del sistema ("
+                    + anclajes.get() + " veces, ver los avisos anteriores). Corrígelo o desactiva ahorcado.hilos.virtuales");
+        }
+        log.info("Comprobación de hilos virtuales: ningún anclaje en el camino de las peticiones");
+
+        grabacion = new RecordingStream();
+        grabacion.enable(EVENTO).withStackTrace().withThreshold(Duration.ofMillis(umbralMs));
+        grabacion.onEvent(EVENTO, this::anclaje);
+        grabacion.startAsync();
+    }
+
+    /**
+     * Recorre lo que hace una petición de juego (comprobar la contraseña, probar letras desde dos peticiones a la vez
+     * sobre la misma partida y leer su estado) y espera a que JFR entregue los eventos.
+     * La partida lleva el oyente de las partidas de los jugadores, así que cada letra pasa por el registro de eventos
+     * y la escritura diferida, igual que en una petición real.
+     *
+     * @param anclajes Cuenta los anclajes que se ven durante la comprobación.
+     */
+    private void comprobar(ThreadFactory fabrica, AtomicInteger anclajes) {
+        try (RecordingStream sonda = new RecordingStream()) {
+            // Sin umbral: durante la comprobación cuenta cualquier anclaje, aunque sea breve
+            sonda.enable(EVENTO).withStackTrace().withThreshold(Duration.ZERO);
+            sonda.onEvent(EVENTO, evento -> {
+                anclajes.incrementAndGet();
+                avisar(evento);
+            });
+            sonda.startAsync();
+
+            codificador.matches("comprobacion", codificador.encode("comprobacion"));
+
+            Game partida = new Game("COMPROBACION", "Comprobación de hilos virtuales", null, null);
+            partida.setOyente(seguimiento.oyente(JUGADOR, JUGADOR));
+            Thread[] peticiones = new Thread[2];
+            for (int i = 0; i < peticiones.length; i++) {
+                String letras = i == 0 ? "AEIOU" : "CMPRBN";
+                peticiones[i] = fabrica.newThread(() -> {
+                    for (char letra : letras.toCharArray()) {
+                        partida.probarLetra(letra);
+                        EstadoPartida.de(partida);
+                    }
+                });
+                peticiones[i].start();
+            }
+            for (Thread peticion : peticiones) peticion.join();
+            escritura.eliminarPartida(JUGADOR);
+
+            Thread.sleep(2_000); // JFR entrega los eventos en bloques, aproximadamente cada segundo
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void anclaje(RecordedEvent evento) {
+        bloqueos.increment();
+        avisar(evento);
+    }
+
+    /**
+     * Registra la pila del anclaje la primera vez que se ancla en ese sitio.
+     */
+    private void avisar(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) return;
+
+        String pila = evento.getStackTrace().getFrames().stream()
+                .limit(MAX_MARCOS)
+                .map(VigilanciaBloqueos::marco)
+                .collect(Collectors.joining("\n\tat "));
+        if (sitiosVistos.add(pila)) {
+            log.warn("Hilo virtual anclado {} ms a su hilo del sistema:\n\tat {}", evento.getDuration().toMillis(), pila);
+        }
+    }
+
+    private static String marco(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName() + ":" + marco.getLineNumber();
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (grabacion != null) grabacion.close();
+    }
+}
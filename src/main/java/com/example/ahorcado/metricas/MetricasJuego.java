@@ -0,0 +1,68 @@
+package com.example.ahorcado.metricas;
+
+import com.example.ahorcado.persistencia.RegistroEventos;
+import com.example.ahorcado.services.CanalEventos;
+import com.example.ahorcado.services.Clasificacion;
+import com.example.ahorcado.services.Diccionario;
+import com.example.ahorcado.services.GameStats;
+import com.example.ahorcado.services.RegistroPartidas;
+import com.example.ahorcado.services.RegistroSalas;
+import com.example.ahorcado.services.RuedaTemporizadores;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas del juego, se publican en formato Prometheus en /actuator/prometheus.
+ * Los tamaños (partidas, salas, temporizadores, diccionario...) se leen al consultarlas, así medir no añade trabajo
+ * a las peticiones. Los tiempos de los intentos y de elegir palabra los mide el controlador con los temporizadores de esta clase.
+ */
+@Component
+@Getter
+public class MetricasJuego {
+    private final Timer intentoLetra; // Probar una letra y responder con el fragmento de la palabra oculta.
+    private final Timer intentoLetraJson; // Probar una letra y responder con el estado de la partida en JSON.
+    private final Timer seleccionPalabra; // Elegir las palabras candidatas y robar una del mazo del jugador.
+    private final Counter partidasIniciadas; // Partidas creadas o recuperadas en este servidor.
+
+    public MetricasJuego(MeterRegistry registro, RegistroPartidas partidas, RegistroSalas salas, Diccionario diccionario,
+                         GameStats estadisticas, CanalEventos eventos, RegistroEventos registroEventos,
+                         Clasificacion clasificacion, RuedaTemporizadores rueda) {
+        intentoLetra = Timer.builder("ahorcado.intento.letra").tag("respuesta", "html")
+                .description("Tiempo de probar una letra").publishPercentileHistogram().register(registro);
+        intentoLetraJson = Timer.builder("ahorcado.intento.letra").tag("respuesta", "json")
+                .description("Tiempo de probar una letra").publishPercentileHistogram().register(registro);
+        seleccionPalabra = Timer.builder("ahorcado.palabra.seleccion")
+                .description("Tiempo de elegir la palabra de una partida nueva").publishPercentileHistogram().register(registro);
+        partidasIniciadas = Counter.builder("ahorcado.partidas.iniciadas")
+                .description("Partidas creadas o recuperadas").register(registro);
+
+        Gauge.builder("ahorcado.partidas.activas", partidas, RegistroPartidas::tamano)
+                .description("Partidas individuales en memoria").register(registro);
+        Gauge.builder("ahorcado.salas.activas", salas, RegistroSalas::tamano)
+                .description("Salas de 2 jugadores abiertas").register(registro);
+        Gauge.builder("ahorcado.temporizadores.pendientes", rueda, RuedaTemporizadores::pendientes)
+                .description("Turnos programados en la rueda de temporizadores").register(registro);
+        Gauge.builder("ahorcado.diccionario.palabras", diccionario, Diccionario::tamano)
+                .description("Palabras del diccionario").register(registro);
+        Gauge.builder("ahorcado.eventos.suscriptores", eventos, CanalEventos::numeroSuscriptores)
+                .description("Navegadores suscritos a los eventos de partidas").register(registro);
+        FunctionCounter.builder("ahorcado.registro.eventos", registroEventos, RegistroEventos::getSecuencia)
+                .description("Eventos escritos en el registro de eventos").register(registro);
+        Gauge.builder("ahorcado.clasificacion.jugadores", clasificacion, Clasificacion::tamano)
+                .description("Jugadores en la clasificación").register(registro);
+
+        FunctionCounter.builder("ahorcado.estadisticas.partidas", estadisticas, GameStats::getPartidasTerminadas)
+                .description("Partidas contadas en las estadísticas globales").register(registro);
+        Gauge.builder("ahorcado.estadisticas.palabras", estadisticas, GameStats::numeroPalabrasJugadas).tag("tipo", "jugadas")
+                .description("Palabras distintas con contador en las estadísticas").register(registro);
+        Gauge.builder("ahorcado.estadisticas.palabras", estadisticas, GameStats::numeroPalabrasAcertadas).tag("tipo", "acertadas")
+                .description("Palabras distintas con contador en las estadísticas").register(registro);
+        Gauge.builder("ahorcado.estadisticas.palabras", estadisticas, GameStats::numeroPalabrasFalladas).tag("tipo", "falladas")
+                .description("Palabras distintas con contador en las estadísticas").register(registro);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.ahorcado.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cuánto tarda en generarse cada plantilla, desde que el controlador termina hasta que la respuesta está escrita.
+ * El tiempo total de la petición ya lo mide Actuator en http.server.requests.
+ */
+@Configuration
+public class TiempoVistas implements WebMvcConfigurer, HandlerInterceptor {
+    private static final String INICIO = TiempoVistas.class.getName() + ".inicio";
+
+    private final MeterRegistry registro;
+
+    public TiempoVistas(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) return;
+
+        // Los fragmentos ("plantilla :: fragmento") se cuentan con su plantilla
+        String vista = modelAndView.getViewName();
+        int fragmento = vista.indexOf("::");
+        if (fragmento >= 0) vista = vista.substring(0, fragmento).trim();
+        request.setAttribute(INICIO, new Inicio(vista, System.nanoTime()));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(INICIO) instanceof Inicio inicio)) return;
+
+        Timer.builder("ahorcado.vista.render").tag("vista", inicio.vista())
+                .description("Tiempo de generar la plantilla")
+                .register(registro)
+                .record(System.nanoTime() - inicio.nanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private record Inicio(String vista, long nanos) {
+    }
+}
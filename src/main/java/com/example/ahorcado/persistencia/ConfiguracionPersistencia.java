@@ -0,0 +1,35 @@
+package com.example.ahorcado.persistencia;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Elige dónde se guardan las partidas y las estadísticas. Con {@code ahorcado.persistencia.directorio} se guardan
+ * en ficheros de ese directorio; si está vacío no se guarda nada. Es una autoconfiguración, se evalúa después de
+ * la configuración de la aplicación, así que declarando otro {@link GameRepository} o {@link StatsRepository}
+ * se sustituye el almacén correspondiente.
+ */
+@AutoConfiguration
+public class ConfiguracionPersistencia {
+    @Value("${ahorcado.persistencia.directorio:}")
+    private String directorio;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public GameRepository gameRepository() throws IOException {
+        if (directorio.isBlank()) return SinPersistencia.PARTIDAS;
+        return new FicheroGameRepository(Path.of(directorio, "partidas.log"));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StatsRepository statsRepository() throws IOException {
+        if (directorio.isBlank()) return SinPersistencia.ESTADISTICAS;
+        return new FicheroStatsRepository(Path.of(directorio, "estadisticas.log"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.InstantaneaPartida;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola de escritura diferida (write-behind) hacia los almacenes de partidas y estadísticas.
+ * Las peticiones solo apuntan los cambios en memoria: de cada partida se queda el último estado y los incrementos
+ * de cada contador se suman entre sí. Periódicamente se escriben en un lote, así ninguna petición espera al disco.
+ * Si la escritura falla los cambios vuelven a la cola para el siguiente lote.
+ */
+@Component
+@Slf4j
+public class EscrituraDiferida {
+    private final GameRepository partidas;
+    private final StatsRepository estadisticas;
+    private final boolean activa;
+    private final Map<String, Optional<InstantaneaPartida>> partidasPendientes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> contadoresPendientes = new ConcurrentHashMap<>();
+
+    public EscrituraDiferida(GameRepository partidas, StatsRepository estadisticas) {
+        this.partidas = partidas;
+        this.estadisticas = estadisticas;
+        this.activa = partidas != SinPersistencia.PARTIDAS || estadisticas != SinPersistencia.ESTADISTICAS;
+    }
+
+    /**
+     * Obtiene la última partida del jugador, aunque aún no se haya escrito.
+     *
+     * @param jugador Nombre del jugador.
+     * @return La partida guardada del jugador, vacío si no tiene.
+     */
+    public Optional<InstantaneaPartida> cargarPartida(String jugador) {
+        Optional<InstantaneaPartida> pendiente = partidasPendientes.get(jugador);
+        return pendiente != null ? pendiente : partidas.cargar(jugador);
+    }
+
+    /**
+     * Apunta el estado de la partida del jugador para guardarlo en el siguiente lote.
+     *
+     * @param jugador Nombre del jugador.
+     * @param partida Estado de su partida.
+     */
+    public void guardarPartida(String jugador, InstantaneaPartida partida) {
+        if (activa) partidasPendientes.put(jugador, Optional.of(partida));
+    }
+
+    /**
+     * Apunta que la partida del jugador se ha eliminado.
+     *
+     * @param jugador Nombre del jugador.
+     */
+    public void eliminarPartida(String jugador) {
+        if (activa) partidasPendientes.put(jugador, Optional.empty());
+    }
+
+    /**
+     * @return El valor guardado de cada contador de las estadísticas.
+     */
+    public Map<String, Long> cargarEstadisticas() {
+        return estadisticas.cargar();
+    }
+
+    /**
+     * Suma uno al contador para guardarlo en el siguiente lote.
+     *
+     * @param clave Contador de las estadísticas.
+     */
+    public void sumar(String clave) {
+        sumar(clave, 1);
+    }
+
+    /**
+     * Suma una cantidad al contador para guardarla en el siguiente lote.
+     *
+     * @param clave    Contador de las estadísticas.
+     * @param cantidad Cantidad a sumar, puede ser negativa.
+     */
+    public void sumar(String clave, long cantidad) {
+        if (activa && cantidad != 0) contadoresPendientes.computeIfAbsent(clave, k -> new AtomicLong()).addAndGet(cantidad);
+    }
+
+    /**
+     * Escribe los cambios pendientes en un lote. Se ejecuta periódicamente y al parar la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.persistencia.escritura-ms:1000}")
+    @PreDestroy
+    public synchronized void vaciar() {
+        if (!activa) return;
+
+        Map<String, Optional<InstantaneaPartida>> lotePartidas = new HashMap<>();
+        partidasPendientes.forEach((jugador, partida) -> {
+            if (partidasPendientes.remove(jugador, partida)) lotePartidas.put(jugador, partida);
+        });
+        Map<String, Long> loteContadores = new HashMap<>();
+        contadoresPendientes.forEach((clave, contador) -> {
+            long cantidad = contador.getAndSet(0);
+            if (cantidad != 0) loteContadores.put(clave, cantidad);
+        });
+
+        if (!lotePartidas.isEmpty()) {
+            try {
+                partidas.guardar(lotePartidas);
+            } catch (RuntimeException e) {
+                log.error("No se han podido guardar {} partidas, se reintentará", lotePartidas.size(), e);
+                lotePartidas.forEach(partidasPendientes::putIfAbsent);
+            }
+        }
+        if (!loteContadores.isEmpty()) {
+            try {
+                estadisticas.sumar(loteContadores);
+            } catch (RuntimeException e) {
+                log.error("No se han podido guardar las estadísticas, se reintentará", e);
+                loteContadores.forEach((clave, cantidad) ->
+                        contadoresPendientes.computeIfAbsent(clave, k -> new AtomicLong()).addAndGet(cantidad));
+            }
+        }
+    }
+}
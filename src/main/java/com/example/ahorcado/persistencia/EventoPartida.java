@@ -0,0 +1,63 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.OyentePartida;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Acción de una partida guardada en el registro de eventos.
+ *
+ * @param secuencia Posición del evento en el registro, crece con cada evento.
+ * @param instante  Momento del evento en milisegundos desde 1970.
+ * @param partida   Identificador de la partida.
+ * @param accion    Acción de la partida.
+ * @param detalle   Palabra de la partida al iniciarla, letra o palabra probada, o el marcador de la sala. Vacío si no tiene.
+ * @param fallos    Fallos de la partida tras la acción.
+ * @param terminada Si la partida ha terminado con la acción.
+ * @param anterior  Posición en el registro del evento anterior de la misma partida, -1 si no se conoce.
+ */
+public record EventoPartida(long secuencia, long instante, long partida, OyentePartida.Accion accion, String detalle,
+                            int fallos, boolean terminada, @JsonIgnore long anterior) {
+    private static final OyentePartida.Accion[] ACCIONES = OyentePartida.Accion.values();
+
+    /**
+     * @return Bytes que ocupa el evento codificado.
+     */
+    int tamano() {
+        return 8 + 8 + 8 + 8 + 1 + 1 + 1 + 2 + detalle.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Escribe el evento en formato binario compacto.
+     *
+     * @param buffer Buffer de destino.
+     */
+    void escribir(ByteBuffer buffer) {
+        byte[] bytesDetalle = detalle.getBytes(StandardCharsets.UTF_8);
+        buffer.putLong(secuencia).putLong(instante).putLong(partida).putLong(anterior)
+                .put((byte) accion.ordinal()).put((byte) fallos).put((byte) (terminada ? 1 : 0))
+                .putShort((short) bytesDetalle.length).put(bytesDetalle);
+    }
+
+    /**
+     * Lee un evento escrito con {@link #escribir(ByteBuffer)}.
+     *
+     * @param buffer Buffer posicionado al inicio del evento.
+     * @return El evento leído.
+     */
+    static EventoPartida leer(ByteBuffer buffer) {
+        long secuencia = buffer.getLong();
+        long instante = buffer.getLong();
+        long partida = buffer.getLong();
+        long anterior = buffer.getLong();
+        OyentePartida.Accion accion = ACCIONES[buffer.get()];
+        int fallos = buffer.get();
+        boolean terminada = buffer.get() != 0;
+        byte[] detalle = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(detalle);
+        return new EventoPartida(secuencia, instante, partida, accion, new String(detalle, StandardCharsets.UTF_8),
+                fallos, terminada, anterior);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.InstantaneaPartida;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda las partidas en un fichero de registros en el que cada cambio se añade al final.
+ * Al arrancar se lee el fichero entero (el último registro de cada jugador es el que vale) y se compacta,
+ * y también se compacta cuando los registros antiguos superan a las partidas guardadas.
+ */
+final class FicheroGameRepository implements GameRepository, Closeable {
+    private static final int MIN_REGISTROS_COMPACTAR = 10_000;
+
+    private final FicheroRegistros fichero;
+    private final Map<String, InstantaneaPartida> partidas = new ConcurrentHashMap<>();
+    private long registros; // Registros en el fichero desde la última compactación.
+
+    FicheroGameRepository(Path ruta) throws IOException {
+        this.fichero = new FicheroRegistros(ruta);
+        for (byte[] registro : fichero.leer()) {
+            leerRegistro(registro);
+        }
+        compactar();
+    }
+
+    @Override
+    public Optional<InstantaneaPartida> cargar(String jugador) {
+        return Optional.ofNullable(partidas.get(jugador));
+    }
+
+    @Override
+    public synchronized void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+        List<byte[]> lote = new ArrayList<>(cambios.size());
+        cambios.forEach((jugador, partida) -> {
+            lote.add(registro(jugador, partida.orElse(null)));
+            if (partida.isPresent()) partidas.put(jugador, partida.get());
+            else partidas.remove(jugador);
+        });
+
+        try {
+            fichero.anadir(lote);
+            registros += lote.size();
+            if (registros > MIN_REGISTROS_COMPACTAR && registros > 2L * partidas.size()) compactar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fichero.close();
+    }
+
+    private void compactar() throws IOException {
+        List<byte[]> vivos = new ArrayList<>(partidas.size());
+        partidas.forEach((jugador, partida) -> vivos.add(registro(jugador, partida)));
+        fichero.reescribir(vivos);
+        registros = vivos.size();
+    }
+
+    private void leerRegistro(byte[] registro) throws IOException {
+        DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(registro));
+        String jugador = entrada.readUTF();
+        if (!entrada.readBoolean()) {
+            partidas.remove(jugador);
+            return;
+        }
+        String palabra = entrada.readUTF(), pista = entrada.readUTF(), palabraOculta = entrada.readUTF();
+        int letrasProbadas = entrada.readInt(), letrasAcertadas = entrada.readInt(), letrasFalladas = entrada.readInt();
+        int fallos = entrada.readInt();
+        // Los registros de versiones anteriores terminan en los fallos, sin las marcas
+        int marcas = entrada.available() > 0 ? entrada.readByte() : 0;
+        partidas.put(jugador, new InstantaneaPartida(palabra, pista, palabraOculta, letrasProbadas, letrasAcertadas,
+                letrasFalladas, fallos, (marcas & 1) != 0, (marcas & 2) != 0));
+    }
+
+    private static byte[] registro(String jugador, InstantaneaPartida partida) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeUTF(jugador);
+            salida.writeBoolean(partida != null);
+            if (partida != null) {
+                salida.writeUTF(partida.palabra());
+                salida.writeUTF(partida.pista());
+                salida.writeUTF(partida.palabraOculta());
+                salida.writeInt(partida.letrasProbadas());
+                salida.writeInt(partida.letrasAcertadas());
+                salida.writeInt(partida.letrasFalladas());
+                salida.writeInt(partida.fallos());
+                salida.writeByte((partida.estadisticasRegistradas() ? 1 : 0) | (partida.clasificada() ? 2 : 0));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
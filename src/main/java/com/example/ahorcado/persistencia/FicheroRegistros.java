@@ -0,0 +1,123 @@
+package com.example.ahorcado.persistencia;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Fichero de registros en el que solo se añade al final. Cada registro lleva su longitud y un CRC32,
+ * así al leerlo tras una caída se descarta el último registro si quedó a medio escribir.
+ * Cada lote se fuerza a disco antes de volver.
+ */
+@Slf4j
+final class FicheroRegistros implements Closeable {
+    private static final int CABECERA = 8; // Longitud y CRC32 de cada registro.
+
+    private final Path ruta;
+    private FileChannel canal;
+
+    FicheroRegistros(Path ruta) throws IOException {
+        this.ruta = ruta;
+        if (ruta.getParent() != null) Files.createDirectories(ruta.getParent());
+        this.canal = abrir();
+    }
+
+    /**
+     * Lee todos los registros válidos. Si el final del fichero está dañado se corta para que los siguientes
+     * registros se añadan detrás del último válido.
+     *
+     * @return Los registros en el orden en que se añadieron.
+     */
+    synchronized List<byte[]> leer() throws IOException {
+        ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        List<byte[]> registros = new ArrayList<>();
+        while (contenido.remaining() >= CABECERA) {
+            int inicio = contenido.position();
+            int longitud = contenido.getInt();
+            int crc = contenido.getInt();
+            if (longitud < 0 || longitud > contenido.remaining()) {
+                contenido.position(inicio);
+                break;
+            }
+
+            byte[] registro = new byte[longitud];
+            contenido.get(registro);
+            if (crc(registro) != crc) {
+                contenido.position(inicio);
+                break;
+            }
+            registros.add(registro);
+        }
+
+        if (contenido.position() < contenido.limit()) {
+            log.warn("Se descartan {} bytes dañados al final de {}", contenido.limit() - contenido.position(), ruta);
+            canal.truncate(contenido.position());
+        }
+        return registros;
+    }
+
+    /**
+     * Añade un lote de registros al final del fichero y lo fuerza a disco.
+     *
+     * @param registros Registros a añadir.
+     */
+    synchronized void anadir(List<byte[]> registros) throws IOException {
+        if (registros.isEmpty()) return;
+        canal.write(codificar(registros));
+        canal.force(false);
+    }
+
+    /**
+     * Sustituye el contenido del fichero por los registros indicados, escribiéndolos en un fichero temporal
+     * que después se mueve sobre el original, así una caída a mitad deja el fichero anterior entero.
+     *
+     * @param registros Registros del nuevo fichero.
+     */
+    synchronized void reescribir(List<byte[]> registros) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            nuevo.write(codificar(registros));
+            nuevo.force(true);
+        }
+        canal.close();
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal = abrir();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static ByteBuffer codificar(List<byte[]> registros) {
+        int total = 0;
+        for (byte[] registro : registros) total += CABECERA + registro.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] registro : registros) {
+            buffer.putInt(registro.length).putInt(crc(registro)).put(registro);
+        }
+        return buffer.flip();
+    }
+
+    private static int crc(byte[] registro) {
+        CRC32 crc = new CRC32();
+        crc.update(registro);
+        return (int) crc.getValue();
+    }
+}
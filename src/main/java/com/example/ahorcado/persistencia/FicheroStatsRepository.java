@@ -0,0 +1,79 @@
+package com.example.ahorcado.persistencia;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda los contadores de las estadísticas en un fichero de registros. Cada lote de incrementos es un registro;
+ * al arrancar se suman todos y el fichero se compacta en un único registro con los totales distintos de cero,
+ * igual que cuando acumula demasiados lotes.
+ */
+final class FicheroStatsRepository implements StatsRepository, Closeable {
+    private static final int MAX_REGISTROS = 10_000;
+
+    private final FicheroRegistros fichero;
+    private final Map<String, Long> totales = new HashMap<>();
+    private int registros; // Lotes en el fichero desde la última compactación.
+
+    FicheroStatsRepository(Path ruta) throws IOException {
+        this.fichero = new FicheroRegistros(ruta);
+        for (byte[] registro : fichero.leer()) {
+            DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(registro));
+            for (int n = entrada.readInt(); n > 0; n--) {
+                totales.merge(entrada.readUTF(), entrada.readLong(), Long::sum);
+            }
+        }
+        compactar();
+    }
+
+    @Override
+    public synchronized Map<String, Long> cargar() {
+        return Map.copyOf(totales);
+    }
+
+    @Override
+    public synchronized void sumar(Map<String, Long> incrementos) {
+        if (incrementos.isEmpty()) return;
+        try {
+            fichero.anadir(List.of(registro(incrementos)));
+            incrementos.forEach((clave, cantidad) -> totales.merge(clave, cantidad, Long::sum));
+            if (++registros > MAX_REGISTROS) compactar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fichero.close();
+    }
+
+    private void compactar() throws IOException {
+        totales.values().removeIf(valor -> valor == 0);
+        fichero.reescribir(totales.isEmpty() ? List.of() : List.of(registro(totales)));
+        registros = 1;
+    }
+
+    private static byte[] registro(Map<String, Long> contadores) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeInt(contadores.size());
+            for (Map.Entry<String, Long> contador : contadores.entrySet()) {
+                salida.writeUTF(contador.getKey());
+                salida.writeLong(contador.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
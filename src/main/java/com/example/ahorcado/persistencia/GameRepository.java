@@ -0,0 +1,26 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.InstantaneaPartida;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Almacén de las partidas individuales de cada jugador, para recuperarlas tras reiniciar el servidor
+ * o compartirlas entre servidores. Las escrituras llegan en lotes desde {@link EscrituraDiferida}.
+ */
+public interface GameRepository {
+
+    /**
+     * @param jugador Nombre del jugador.
+     * @return La última partida guardada del jugador, vacío si no tiene.
+     */
+    Optional<InstantaneaPartida> cargar(String jugador);
+
+    /**
+     * Guarda un lote de cambios.
+     *
+     * @param cambios Última partida de cada jugador, o vacío si su partida se ha eliminado.
+     */
+    void guardar(Map<String, Optional<InstantaneaPartida>> cambios);
+}
@@ -0,0 +1,585 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.InstantaneaPartida;
+import com.example.ahorcado.services.OyentePartida;
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de eventos de las partidas: cada partida creada, letra o palabra probada, turno agotado y puntuación
+ * se añade al final como un evento binario compacto. El registro se divide en segmentos de tamaño fijo proyectados
+ * en memoria, así añadir un evento es copiar unos bytes y el disco se sincroniza periódicamente con escrituras secuenciales.
+ * <p>
+ * El siguiente segmento se prepara en segundo plano y los antiguos se borran también en segundo plano, de modo que
+ * quien registra un evento nunca espera al disco. Los eventos de una partida se pueden consultar para auditarla
+ * mientras su segmento no se haya borrado.
+ * <p>
+ * Cada evento guarda la posición del anterior de su partida y el registro recuerda la del último de las partidas más
+ * recientes ({@code ahorcado.eventos.partidas-indexadas}), así consultar o reproducir una partida lee solo sus eventos.
+ * Los demás leen el registro de forma secuencial con un {@link Cursor}, por ejemplo para construir las estadísticas
+ * fuera de las peticiones. El cerrojo del registro es un {@link ReentrantLock}, así un hilo virtual
+ * que espera para añadir un evento libera su hilo del sistema.
+ */
+@Component
+@Slf4j
+public class RegistroEventos {
+    private static final String PREFIJO_SEGMENTO = "eventos-";
+    private static final String EXTENSION_SEGMENTO = ".log";
+    private static final int CABECERA = 8; // Longitud y CRC32 de cada evento.
+    private static final int MAX_DETALLE = 200; // Caracteres que se guardan de las palabras probadas.
+    private static final int MAX_EVENTO = CABECERA + 64 + 4 * MAX_DETALLE; // Bytes que puede ocupar un evento como mucho.
+    private static final int BLOQUE_LECTURA = 64 * 1024; // Bytes que se leen de cada vez al consultar un segmento.
+
+    private final Path directorio; // Null si el registro está desactivado.
+    private final int tamanoSegmento;
+    private final int maxSegmentos;
+    private final List<Path> segmentos = new ArrayList<>(); // En orden, el último es el actual.
+    private final List<MappedByteBuffer> porSincronizar = new ArrayList<>(); // Segmentos llenos aún sin forzar a disco.
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock cerrojo = new ReentrantLock(); // Protege el segmento actual, la lista de segmentos y la secuencia.
+    private final Map<Long, Long> ultimos; // Posición del último evento de cada partida, las menos usadas se olvidan.
+    private MappedByteBuffer segmento;
+    private MappedByteBuffer siguiente; // Segmento preparado en segundo plano, null si aún no está.
+    private long numeroSegmento; // Número del segmento actual.
+    private long secuencia; // Secuencia del último evento escrito.
+
+    public RegistroEventos(@Value("${ahorcado.eventos.directorio:}") String directorio,
+                           @Value("${ahorcado.eventos.segmento-mb:16}") int segmentoMb,
+                           @Value("${ahorcado.eventos.segmentos-max:64}") int maxSegmentos,
+                           @Value("${ahorcado.eventos.partidas-indexadas:100000}") int partidasIndexadas) throws IOException {
+        this.directorio = directorio.isBlank() ? null : Path.of(directorio);
+        this.tamanoSegmento = segmentoMb * 1024 * 1024;
+        this.maxSegmentos = Math.max(1, maxSegmentos);
+        this.ultimos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> mayor) {
+                return size() > partidasIndexadas;
+            }
+        };
+        if (this.directorio != null) {
+            Files.createDirectories(this.directorio);
+            recuperar();
+        }
+    }
+
+    /**
+     * @return true si se registran los eventos, false si no se ha configurado el directorio.
+     */
+    public boolean isActivo() {
+        return directorio != null;
+    }
+
+    /**
+     * Añade al registro la acción de la partida. Se llama desde el oyente de la partida, que se avisa de los cambios
+     * de uno en uno, por lo que los eventos de cada partida quedan en el orden en que ocurrieron.
+     *
+     * @param partida Partida que ha cambiado.
+     * @param accion  Acción de la partida.
+     * @param detalle Detalle de la acción, para INICIO se guarda la palabra de la partida.
+     */
+    public void registrar(Game partida, OyentePartida.Accion accion, String detalle) {
+        if (directorio == null) return;
+
+        String texto = accion == OyentePartida.Accion.INICIO ? partida.getPalabra() : detalle == null ? "" : detalle;
+        if (texto.length() > MAX_DETALLE) texto = texto.substring(0, MAX_DETALLE);
+        boolean terminada = partida.palabraDescubierta() || partida.demasiadosFallos();
+        escribir(partida.getId(), accion, texto, partida.getFallos(), terminada);
+    }
+
+    /**
+     * Obtiene los eventos guardados de una partida, por ejemplo para revisar una partida de 2 jugadores.
+     * Sigue desde el último evento de la partida la cadena de eventos anteriores. Solo si la partida ya no está en el
+     * índice, o la cadena no llega a su inicio, se recorren los segmentos anteriores buscando el resto.
+     * Los segmentos se leen sin el cerrojo del registro, así la consulta no detiene las partidas.
+     *
+     * @param partida Identificador de la partida.
+     * @return Los eventos de la partida en orden.
+     */
+    public List<EventoPartida> historial(long partida) {
+        if (directorio == null) return new ArrayList<>();
+
+        List<Path> rutas;
+        int finActual;
+        Long ultimo;
+        cerrojo.lock();
+        try {
+            rutas = List.copyOf(segmentos);
+            finActual = segmento.position();
+            ultimo = ultimos.get(partida);
+        } finally {
+            cerrojo.unlock();
+        }
+
+        CRC32 crcLectura = new CRC32();
+        Deque<EventoPartida> cadena = new ArrayDeque<>();
+        long primera = ultimo != null ? seguirCadena(partida, ultimo, crcLectura, cadena) : -1;
+        if (!cadena.isEmpty() && cadena.getFirst().accion() == OyentePartida.Accion.INICIO) return new ArrayList<>(cadena);
+
+        // Faltan los primeros eventos: se buscan en los segmentos hasta el del primero de la cadena
+        long hastaSecuencia = cadena.isEmpty() ? Long.MAX_VALUE : cadena.getFirst().secuencia();
+        long hastaSegmento = cadena.isEmpty() ? Long.MAX_VALUE : segmentoDe(primera);
+        List<EventoPartida> eventos = new ArrayList<>();
+        for (int i = 0; i < rutas.size() && numero(rutas.get(i)) <= hastaSegmento; i++) {
+            // Del segmento actual solo se lee hasta el último evento escrito al empezar la consulta
+            long hasta = i == rutas.size() - 1 ? finActual : Long.MAX_VALUE;
+            recorrer(rutas.get(i), 0, hasta, crcLectura, evento -> {
+                if (evento.partida() == partida && evento.secuencia() < hastaSecuencia) eventos.add(evento);
+            });
+        }
+        eventos.addAll(cadena);
+        return eventos;
+    }
+
+    /**
+     * Reproduce los eventos guardados de una partida para obtener su estado, por ejemplo para resolver una
+     * reclamación sobre una partida de 2 jugadores. La pista no se guarda en el registro.
+     *
+     * @param partida Identificador de la partida.
+     * @return El estado de la partida tras su último evento, o vacío si no se conserva su inicio.
+     */
+    public Optional<InstantaneaPartida> reproducir(long partida) {
+        List<EventoPartida> eventos = historial(partida);
+        if (eventos.isEmpty() || eventos.get(0).accion() != OyentePartida.Accion.INICIO) return Optional.empty();
+
+        String palabra = eventos.get(0).detalle();
+        ConjuntoLetras probadas = new ConjuntoLetras();
+        boolean palabraAcertada = false;
+        for (EventoPartida evento : eventos) {
+            if (evento.accion() == OyentePartida.Accion.LETRA && !evento.detalle().isEmpty()) {
+                probadas.anadir(evento.detalle().charAt(0));
+            } else if (evento.accion() == OyentePartida.Accion.PALABRA && palabra.equalsIgnoreCase(evento.detalle())) {
+                palabraAcertada = true;
+            }
+        }
+
+        ConjuntoLetras acertadas = new ConjuntoLetras();
+        ConjuntoLetras falladas = new ConjuntoLetras();
+        for (char letra : probadas) (palabra.indexOf(letra) >= 0 ? acertadas : falladas).anadir(letra);
+        StringBuilder oculta = new StringBuilder(palabra.length() * 2);
+        for (char letra : palabra.toCharArray()) {
+            if (palabraAcertada) acertadas.anadir(letra);
+            oculta.append(palabraAcertada || probadas.contiene(letra) ? letra : '_').append(' ');
+        }
+        int fallos = eventos.get(eventos.size() - 1).fallos();
+        return Optional.of(new InstantaneaPartida(palabra, null, oculta.toString(), probadas.getBits(), acertadas.getBits(),
+                falladas.getBits(), fallos, false, false));
+    }
+
+    /**
+     * Crea un cursor para leer el registro desde el evento siguiente a la secuencia, empezando por el segmento
+     * en el que está, así no se lee lo que ya se había procesado.
+     *
+     * @param secuencia Secuencia del último evento ya procesado, 0 para leer desde el principio. Si es posterior
+     *                  al último evento escrito (por ejemplo, si se ha vaciado el directorio) se lee desde el principio.
+     * @return El cursor.
+     */
+    public Cursor cursor(long secuencia) {
+        if (directorio == null) return new Cursor(secuencia);
+
+        List<Path> rutas;
+        cerrojo.lock();
+        try {
+            rutas = List.copyOf(segmentos);
+            if (secuencia > this.secuencia) secuencia = 0;
+        } finally {
+            cerrojo.unlock();
+        }
+        Cursor cursor = new Cursor(secuencia);
+        CRC32 crcLectura = new CRC32();
+        for (int i = rutas.size() - 1; i >= 0; i--) {
+            cursor.segmento = numero(rutas.get(i));
+            // Primer evento del segmento: si ya estaba procesado, lo que falta empieza en este segmento
+            long[] primera = {Long.MAX_VALUE};
+            recorrer(rutas.get(i), 0, MAX_EVENTO, crcLectura, evento -> primera[0] = Math.min(primera[0], evento.secuencia()));
+            if (primera[0] <= secuencia + 1) break;
+        }
+        return cursor;
+    }
+
+    /**
+     * Lee los eventos escritos desde la última lectura del cursor y lo avanza. Si los segmentos que faltaban por leer
+     * ya se han borrado, sigue con el más antiguo que quede.
+     *
+     * @param cursor Cursor de la lectura.
+     * @param accion Qué hacer con cada evento, en orden.
+     */
+    public void leer(Cursor cursor, Consumer<EventoPartida> accion) {
+        if (directorio == null) return;
+
+        List<Path> rutas;
+        int finActual;
+        cerrojo.lock();
+        try {
+            rutas = List.copyOf(segmentos);
+            finActual = segmento.position();
+        } finally {
+            cerrojo.unlock();
+        }
+
+        CRC32 crcLectura = new CRC32();
+        for (int i = 0; i < rutas.size(); i++) {
+            long numero = numero(rutas.get(i));
+            if (numero < cursor.segmento) continue;
+            if (numero > cursor.segmento) {
+                if (i == 0) log.warn("Se han borrado segmentos del registro de eventos sin leer, se sigue en el {}", numero);
+                cursor.segmento = numero;
+                cursor.posicion = 0;
+            }
+            boolean actual = i == rutas.size() - 1;
+            cursor.posicion = recorrer(rutas.get(i), cursor.posicion, actual ? finActual : Long.MAX_VALUE, crcLectura,
+                    evento -> {
+                        if (evento.secuencia() <= cursor.secuencia) return;
+                        cursor.secuencia = evento.secuencia();
+                        accion.accept(evento);
+                    });
+            if (actual) return;
+        }
+    }
+
+    /**
+     * @return Secuencia del último evento escrito.
+     */
+    public long getSecuencia() {
+        cerrojo.lock();
+        try {
+            return secuencia;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Fuerza a disco los eventos escritos en el segmento actual y en los que se han llenado desde la última vez.
+     * También se hace al parar la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.eventos.sincronizar-ms:1000}")
+    @PreDestroy
+    public void sincronizar() {
+        if (directorio == null) return;
+
+        List<MappedByteBuffer> pendientes;
+        cerrojo.lock();
+        try {
+            pendientes = new ArrayList<>(porSincronizar);
+            pendientes.add(segmento);
+            porSincronizar.clear();
+        } finally {
+            cerrojo.unlock();
+        }
+        pendientes.forEach(MappedByteBuffer::force);
+    }
+
+    /**
+     * Prepara el siguiente segmento para que cambiar de segmento no tenga que crear el fichero, y borra los segmentos
+     * que sobran.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.eventos.sincronizar-ms:1000}")
+    public void prepararSegmento() {
+        if (directorio == null) return;
+
+        long numeroSiguiente;
+        cerrojo.lock();
+        try {
+            numeroSiguiente = siguiente == null ? numeroSegmento + 1 : -1;
+        } finally {
+            cerrojo.unlock();
+        }
+        if (numeroSiguiente >= 0) {
+            MappedByteBuffer preparado = mapear(ruta(numeroSiguiente));
+            cerrojo.lock();
+            try {
+                // Si entretanto se ha llenado el segmento, ya se ha creado el siguiente al escribir
+                if (siguiente == null && numeroSegmento + 1 == numeroSiguiente) siguiente = preparado;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        List<Path> antiguos;
+        cerrojo.lock();
+        try {
+            List<Path> sobrantes = segmentos.subList(0, Math.max(0, segmentos.size() - maxSegmentos));
+            antiguos = List.copyOf(sobrantes);
+            sobrantes.clear();
+        } finally {
+            cerrojo.unlock();
+        }
+        for (Path antiguo : antiguos) {
+            try {
+                Files.deleteIfExists(antiguo);
+            } catch (IOException e) {
+                log.warn("No se ha podido borrar el segmento {}", antiguo, e);
+            }
+        }
+    }
+
+    private void escribir(long partida, OyentePartida.Accion accion, String detalle, int fallos, boolean terminada) {
+        cerrojo.lock();
+        try {
+            EventoPartida evento = new EventoPartida(secuencia + 1, System.currentTimeMillis(), partida, accion, detalle,
+                    fallos, terminada, ultimos.getOrDefault(partida, -1L));
+            int tamano = evento.tamano();
+            if (segmento.remaining() < CABECERA + tamano) cambiarSegmento();
+
+            // La longitud se escribe la última: hasta entonces el evento no existe para quien lea el segmento
+            int inicio = segmento.position();
+            ultimos.put(partida, posicion(numeroSegmento, inicio));
+            segmento.position(inicio + CABECERA);
+            evento.escribir(segmento);
+            segmento.putInt(inicio + 4, crc(segmento, inicio + CABECERA, tamano, crc));
+            segmento.putInt(inicio, tamano);
+
+            secuencia = evento.secuencia();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Pasa al siguiente segmento. Normalmente ya lo ha preparado {@link #prepararSegmento()}; solo si el actual
+     * se llena antes se crea aquí.
+     */
+    private void cambiarSegmento() {
+        porSincronizar.add(segmento);
+        numeroSegmento++;
+        segmento = siguiente != null ? siguiente : mapear(ruta(numeroSegmento));
+        siguiente = null;
+        segmentos.add(ruta(numeroSegmento));
+    }
+
+    /**
+     * Sigue escribiendo detrás del último evento válido del último segmento. Si ese evento quedó a medio escribir
+     * se descarta.
+     */
+    private void recuperar() {
+        segmentos.addAll(listarSegmentos());
+        if (segmentos.isEmpty()) segmentos.add(ruta(1));
+        Path ultimo = segmentos.get(segmentos.size() - 1);
+        numeroSegmento = numero(ultimo);
+        segmento = mapear(ultimo);
+
+        int finValido = 0;
+        for (EventoPartida evento = leerEvento(segmento, crc); evento != null; evento = leerEvento(segmento, crc)) {
+            ultimos.put(evento.partida(), posicion(numeroSegmento, finValido));
+            finValido = segmento.position();
+            secuencia = evento.secuencia();
+        }
+        // Borra lo que quede de un evento a medio escribir para que no se confunda con los siguientes
+        int hasta = Math.min(segmento.limit(), finValido + MAX_EVENTO);
+        for (int p = finValido; p < hasta; p++) segmento.put(p, (byte) 0);
+        segmento.position(finValido);
+
+        // El último puede ser un segmento preparado que no se llegó a usar: la secuencia sigue la del anterior
+        if (finValido == 0 && segmentos.size() > 1) {
+            recorrer(segmentos.get(segmentos.size() - 2), 0, Long.MAX_VALUE, crc, evento -> secuencia = evento.secuencia());
+        }
+
+        log.info("Registro de eventos en {}: {} segmentos, secuencia {}", directorio, segmentos.size(), secuencia);
+    }
+
+    /**
+     * Lee los eventos de un segmento por bloques, sin proyectarlo en memoria.
+     *
+     * @param ruta   Segmento a leer. Si se ha borrado por antiguo no se lee nada.
+     * @param desde  Posición del segmento en la que empieza un evento.
+     * @param hasta  Posición del segmento hasta la que se lee como mucho.
+     * @param crc    CRC32 con el que comprobar los eventos.
+     * @param accion Qué hacer con cada evento.
+     * @return Posición del segmento tras el último evento leído.
+     */
+    private long recorrer(Path ruta, long desde, long hasta, CRC32 crc, Consumer<EventoPartida> accion) {
+        long fin = desde;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BLOQUE_LECTURA);
+            canal.position(desde);
+            long pendientes = Math.min(hasta, canal.size()) - desde;
+            while (pendientes > 0) {
+                buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + pendientes));
+                int leidos = canal.read(buffer);
+                if (leidos < 0) break;
+                pendientes -= leidos;
+
+                // El principio del buffer está siempre en la posición fin del segmento
+                buffer.flip();
+                for (EventoPartida evento = leerEvento(buffer, crc); evento != null; evento = leerEvento(buffer, crc)) {
+                    accion.accept(evento);
+                }
+                fin += buffer.position();
+                // Se sigue leyendo solo si el siguiente evento ha quedado partido entre dos bloques
+                if (!incompleto(buffer)) break;
+                buffer.compact();
+            }
+        } catch (NoSuchFileException e) {
+            // Se ha borrado por antiguo mientras tanto
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fin;
+    }
+
+    /**
+     * Lee hacia atrás los eventos de la partida siguiendo la posición del anterior que guarda cada uno, hasta
+     * su inicio o hasta donde se pierda la cadena (por ejemplo, en un segmento borrado).
+     *
+     * @param partida  Identificador de la partida.
+     * @param posicion Posición del último evento de la partida.
+     * @param crc      CRC32 con el que comprobar los eventos.
+     * @param cadena   Recibe los eventos, del primero al último.
+     * @return Posición del primer evento de la cadena, -1 si no se ha leído ninguno.
+     */
+    private long seguirCadena(long partida, long posicion, CRC32 crc, Deque<EventoPartida> cadena) {
+        long primera = -1;
+        FileChannel canal = null;
+        long segmentoAbierto = -1;
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_EVENTO);
+        try {
+            while (posicion >= 0) {
+                if (segmentoDe(posicion) != segmentoAbierto) {
+                    if (canal != null) canal.close();
+                    segmentoAbierto = segmentoDe(posicion);
+                    canal = FileChannel.open(ruta(segmentoAbierto), StandardOpenOption.READ);
+                }
+                buffer.clear();
+                canal.read(buffer, posicion & 0xFFFFFFFFL);
+                buffer.flip();
+                EventoPartida evento = leerEvento(buffer, crc);
+                if (evento == null || evento.partida() != partida) break;
+
+                cadena.addFirst(evento);
+                primera = posicion;
+                if (evento.accion() == OyentePartida.Accion.INICIO) break;
+                posicion = evento.anterior();
+            }
+        } catch (NoSuchFileException e) {
+            // El resto de la cadena estaba en un segmento ya borrado
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            try {
+                if (canal != null) canal.close();
+            } catch (IOException e) {
+                log.warn("No se ha podido cerrar el segmento {}", segmentoAbierto, e);
+            }
+        }
+        return primera;
+    }
+
+    /**
+     * Lee el siguiente evento del segmento.
+     *
+     * @return El evento, o null si se ha llegado al final de los eventos escritos o del buffer, o el siguiente está dañado.
+     */
+    private static EventoPartida leerEvento(ByteBuffer buffer, CRC32 crc) {
+        int inicio = buffer.position();
+        if (buffer.remaining() < CABECERA) return null;
+        int tamano = buffer.getInt(inicio);
+        if (tamano <= 0 || tamano > MAX_EVENTO || tamano > buffer.remaining() - CABECERA) return null;
+        if (buffer.getInt(inicio + 4) != crc(buffer, inicio + CABECERA, tamano, crc)) return null;
+
+        buffer.position(inicio + CABECERA);
+        EventoPartida evento = EventoPartida.leer(buffer);
+        buffer.position(inicio + CABECERA + tamano);
+        return evento;
+    }
+
+    /**
+     * @return Si lo que queda en el buffer es el principio de un evento que no cabe entero.
+     */
+    private static boolean incompleto(ByteBuffer buffer) {
+        if (buffer.remaining() < CABECERA) return true;
+        int tamano = buffer.getInt(buffer.position());
+        return tamano > 0 && tamano <= MAX_EVENTO && tamano > buffer.remaining() - CABECERA;
+    }
+
+    private static int crc(ByteBuffer buffer, int desde, int tamano, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.duplicate().limit(desde + tamano).position(desde));
+        return (int) crc.getValue();
+    }
+
+    private List<Path> listarSegmentos() {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.filter(f -> f.getFileName().toString().startsWith(PREFIJO_SEGMENTO)
+                            && f.getFileName().toString().endsWith(EXTENSION_SEGMENTO))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path ruta(long numero) {
+        return directorio.resolve(String.format("%s%020d%s", PREFIJO_SEGMENTO, numero, EXTENSION_SEGMENTO));
+    }
+
+    /**
+     * @return Posición de un evento en el registro: el número de su segmento y su posición dentro de él.
+     */
+    private static long posicion(long numeroSegmento, int posicionEnSegmento) {
+        return numeroSegmento << 32 | posicionEnSegmento;
+    }
+
+    private static long segmentoDe(long posicion) {
+        return posicion >>> 32;
+    }
+
+    private static long numero(Path segmento) {
+        String nombre = segmento.getFileName().toString();
+        return Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(), nombre.length() - EXTENSION_SEGMENTO.length()));
+    }
+
+    /**
+     * Posición hasta la que se ha leído el registro con {@link #leer}, para seguir desde ahí en la siguiente lectura.
+     */
+    public static final class Cursor {
+        private long segmento;
+        private long posicion;
+        private long secuencia;
+
+        private Cursor(long secuencia) {
+            this.secuencia = secuencia;
+        }
+
+        /**
+         * @return Secuencia del último evento leído.
+         */
+        public long getSecuencia() {
+            return secuencia;
+        }
+    }
+
+    private MappedByteBuffer mapear(Path ruta) {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanoSegmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
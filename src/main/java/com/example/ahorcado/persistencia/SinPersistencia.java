@@ -0,0 +1,36 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.InstantaneaPartida;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Almacenes que no guardan nada, se usan cuando la persistencia está desactivada.
+ */
+final class SinPersistencia {
+    static final GameRepository PARTIDAS = new GameRepository() {
+        @Override
+        public Optional<InstantaneaPartida> cargar(String jugador) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+        }
+    };
+
+    static final StatsRepository ESTADISTICAS = new StatsRepository() {
+        @Override
+        public Map<String, Long> cargar() {
+            return Map.of();
+        }
+
+        @Override
+        public void sumar(Map<String, Long> incrementos) {
+        }
+    };
+
+    private SinPersistencia() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ahorcado.persistencia;
+
+import java.util.Map;
+
+/**
+ * Almacén de los contadores de las estadísticas globales. Solo se suman incrementos, que llegan agrupados
+ * en lotes desde {@link EscrituraDiferida}.
+ */
+public interface StatsRepository {
+
+    /**
+     * @return El valor guardado de cada contador.
+     */
+    Map<String, Long> cargar();
+
+    /**
+     * Suma un lote de incrementos a los contadores.
+     *
+     * @param incrementos Cantidad a sumar a cada contador.
+     */
+    void sumar(Map<String, Long> incrementos);
+}
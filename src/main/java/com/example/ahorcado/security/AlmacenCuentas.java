@@ -0,0 +1,21 @@
+package com.example.ahorcado.security;
+
+import java.util.Optional;
+
+/**
+ * Almacén de las cuentas de los jugadores. Se busca una cuenta en cada inicio de sesión, así que la búsqueda
+ * debe ser rápida aunque haya muchos jugadores. Declarando otro bean de este tipo se sustituye el almacén.
+ */
+public interface AlmacenCuentas {
+
+    /**
+     * @param usuario Nombre de usuario.
+     * @return La cuenta del usuario, vacío si no existe.
+     */
+    Optional<Cuenta> buscar(String usuario);
+
+    /**
+     * @return Número de cuentas del almacén.
+     */
+    int tamano();
+}
@@ -0,0 +1,25 @@
+package com.example.ahorcado.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+
+/**
+ * Almacén de cuentas por defecto. Es una autoconfiguración, se evalúa después de la configuración de la aplicación,
+ * así que declarando otro {@link AlmacenCuentas} se sustituye por completo.
+ */
+@AutoConfiguration
+public class ConfiguracionCuentas {
+
+    /**
+     * Cuentas de los jugadores: las incluidas y las del fichero {@code ahorcado.cuentas.fichero}, si hay.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AlmacenCuentas almacenCuentas(@Value("${ahorcado.cuentas.fichero:}") String fichero) {
+        return new CuentasEnMemoria(fichero.isBlank() ? null : Path.of(fichero));
+    }
+}
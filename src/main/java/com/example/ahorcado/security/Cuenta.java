@@ -0,0 +1,11 @@
+package com.example.ahorcado.security;
+
+/**
+ * Cuenta de un jugador.
+ *
+ * @param usuario    Nombre de usuario.
+ * @param contrasena Contraseña codificada con BCrypt.
+ * @param rol        Rol del jugador sin el prefijo ROLE_, USER o ADMIN.
+ */
+public record Cuenta(String usuario, String contrasena, String rol) {
+}
@@ -0,0 +1,75 @@
+package com.example.ahorcado.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cuentas guardadas en un mapa en memoria, la búsqueda cuesta O(1) con cualquier número de jugadores.
+ * Siempre incluye las cuentas "user" y "admin"; el resto se leen de un fichero en UTF-8 con una cuenta por línea
+ * y los campos separados por tabuladores ({@code usuario}, contraseña codificada con BCrypt y rol). Las líneas
+ * vacías o que empiezan por # se ignoran.
+ */
+@Slf4j
+public class CuentasEnMemoria implements AlmacenCuentas {
+    // Contraseñas ya codificadas con BCrypt ("user" y "admin"). Codificarlas al arrancar daría un hash distinto
+    // en cada servidor y la cookie de remember-me, que se firma con él, solo valdría en el servidor que la creó.
+    private static final String PASSWORD_USER = "$2a$10$jgJ9SWETPsKS/znTgQmMBu/ld4EYgigXTVnxu2dY9UQBf8Dfx7r/6";
+    private static final String PASSWORD_ADMIN = "$2a$10$aM4SrSW6Hb4.sj7gggjr.O1.VcFE2NtD0kqSupE5SJumLB.Q4kOYe";
+
+    private final Map<String, Cuenta> cuentas = new ConcurrentHashMap<>();
+
+    /**
+     * @param fichero Fichero de cuentas, null para tener solo las cuentas incluidas.
+     */
+    public CuentasEnMemoria(Path fichero) {
+        anadir(new Cuenta("user", PASSWORD_USER, "USER"));
+        anadir(new Cuenta("admin", PASSWORD_ADMIN, "ADMIN"));
+        if (fichero != null) cargar(fichero);
+    }
+
+    @Override
+    public Optional<Cuenta> buscar(String usuario) {
+        return Optional.ofNullable(cuentas.get(usuario));
+    }
+
+    @Override
+    public int tamano() {
+        return cuentas.size();
+    }
+
+    private void anadir(Cuenta cuenta) {
+        cuentas.put(cuenta.usuario(), cuenta);
+    }
+
+    private void cargar(Path fichero) {
+        List<String> lineas;
+        try {
+            lineas = Files.readAllLines(fichero, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se puede leer el fichero de cuentas " + fichero, e);
+        }
+
+        int numero = 0;
+        for (String linea : lineas) {
+            numero++;
+            if (linea.isBlank() || linea.startsWith("#")) continue;
+
+            String[] campos = linea.split("\t");
+            if (campos.length < 3 || !campos[1].startsWith("$2")) {
+                log.warn("Línea {} del fichero de cuentas {} no válida, se ignora", numero, fichero);
+                continue;
+            }
+            anadir(new Cuenta(campos[0].strip(), campos[1].strip(), campos[2].strip().toUpperCase()));
+        }
+        log.info("Cargadas {} cuentas de {}", cuentas.size(), fichero);
+    }
+}
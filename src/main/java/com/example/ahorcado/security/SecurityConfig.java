@@ -1,14 +1,18 @@
 package com.example.ahorcado.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -16,36 +20,49 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public InMemoryUserDetailsManager userDetailsService() {
-        UserDetails user = User.builder()
-                .username("user")
-                .password(passwordEncoder().encode("user"))
-                .roles("USER")
-                .build();
-        UserDetails admin = User.builder()
-                .username("admin")
-                .password(passwordEncoder().encode("admin"))
-                .roles("ADMIN")
-                .build();
-        return new InMemoryUserDetailsManager(user, admin);
+    public UserDetailsService userDetailsService(AlmacenCuentas cuentas) {
+        return usuario -> cuentas.buscar(usuario)
+                .map(cuenta -> User.builder()
+                        .username(cuenta.usuario())
+                        .password(cuenta.contrasena())
+                        .roles(cuenta.rol())
+                        .build())
+                .orElseThrow(() -> new UsernameNotFoundException(usuario));
     }
 
+    /**
+     * BCrypt con el coste configurado para las contraseñas nuevas, recordando las comprobaciones correctas
+     * para no repetir BCrypt en cada inicio de sesión del mismo jugador.
+     * Cada hash guarda su propio coste y se comprueba con él: el coste configurado no cambia el de las cuentas
+     * incluidas ($2a$10) ni el de las del fichero de cuentas, solo el de las contraseñas que codifique la aplicación.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${ahorcado.cuentas.coste-bcrypt:10}") int coste,
+                                           @Value("${ahorcado.cuentas.verificaciones-max:10000}") int maximo,
+                                           @Value("${ahorcado.cuentas.verificaciones-minutos:30}") long minutos) {
+        return new VerificacionCacheada(new BCryptPasswordEncoder(coste), maximo, minutos);
     }
 
     @Bean
-    public SecurityFilterChain formLoginFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain formLoginFilterChain(HttpSecurity http, TokenPartida tokens) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/", "/webjars/**","/css/**").permitAll()
+                        // Las métricas se sirven en un puerto de gestión aparte que solo escucha en local
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .anyRequest().authenticated())
                 .formLogin(form -> form
                         .loginPage("/login")
                         .permitAll())
                 .logout(out -> out
                         .logoutSuccessUrl("/login?logout").permitAll());
+
+        // Con los tokens de partida no se comparten sesiones: cualquier servidor reconoce al usuario por la cookie firmada
+        if (tokens.isActivo()) {
+            http.rememberMe(recordar -> recordar
+                    .key(tokens.derivarClave("recordarme"))
+                    .alwaysRemember(true));
+        }
         return http.build();
 
     }
@@ -0,0 +1,276 @@
+package com.example.ahorcado.security;
+
+import com.example.ahorcado.services.Corpus;
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.MazoPalabras;
+import com.example.ahorcado.services.SelectorPalabras;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Codifica el estado completo de una partida individual en un token compacto firmado con HMAC-SHA256,
+ * que guarda el navegador. Así cualquier servidor con la misma clave puede atender cualquier petición
+ * sin compartir las sesiones. El token lleva la versión del formato, la posición de la palabra en el corpus
+ * (y su hash, para descartar tokens de otro diccionario), las letras probadas, si se acertó la palabra entera
+ * o ya se sumó a las estadísticas, los fallos, el fin del turno, el identificador de la partida y la versión del token.
+ * <p>
+ * La firma incluye el nombre del jugador, así un token solo vale para quien lo recibió. Cada token nuevo de una
+ * partida lleva una versión mayor y el servidor recuerda el último token que ha visto de cada partida reciente
+ * ({@code ahorcado.tokens.partidas-recordadas}). Si llega uno anterior, por ejemplo el guardado antes de fallar
+ * una letra o antes de acertar la palabra, se sigue con el último: no se puede deshacer la partida, y dos peticiones
+ * a la vez cuya respuesta llega en otro orden tampoco pierden nada.
+ * <p>
+ * Esta protección solo vale dentro de un servidor: cada uno recuerda los tokens que ha emitido o recibido, sin
+ * compartirlos. Otro servidor, o el mismo cuando ya ha olvidado la partida, acepta un token anterior bien firmado.
+ * Sin estado compartido no hay forma de saber que un token firmado ha dejado de ser el último.
+ * <p>
+ * El criterio de palabra que eligió el jugador y el estado de su mazo viajan en otro token firmado
+ * ({@link #codificarMazo}), así la siguiente partida tampoco necesita la sesión. Reenviar uno anterior solo hace que
+ * vuelvan a salir palabras ya jugadas.
+ */
+@Component
+@Slf4j
+public class TokenPartida {
+    private static final byte VERSION = 2;
+    private static final byte VERSION_MAZO = 'M'; // Distinta a la de las partidas, así un token no vale por el otro
+    private static final int TAMANO_DATOS_MAZO = 1 + 1 + 1 + 8 + 4 + 4 + 4 + 4; // Más la categoría, de tamaño variable
+    private static final int TAMANO_DATOS = 1 + 4 + 4 + 4 + 1 + 1 + 8 + 8 + 4;
+    private static final int TAMANO_FIRMA = 16; // Primeros bytes del HMAC-SHA256, suficientes para que no se pueda falsificar.
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int PALABRA_ACERTADA = 1; // Marcas del token
+    private static final int ESTADISTICAS_REGISTRADAS = 2;
+    private static final int CLASIFICADA = 4;
+
+    private final boolean activo;
+    private final SecretKeySpec clave;
+    private final ThreadLocal<Mac> macs;
+    private final Map<Long, byte[]> ultimos; // Último token visto de cada partida, los de las menos usadas se olvidan.
+
+    public TokenPartida(@Value("${ahorcado.tokens.activo:false}") boolean activo,
+                        @Value("${ahorcado.tokens.clave:}") String clave,
+                        @Value("${ahorcado.tokens.partidas-recordadas:100000}") int partidasRecordadas) {
+        this.activo = activo;
+        this.ultimos = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> mayor) {
+                return size() > partidasRecordadas;
+            }
+        });
+        byte[] bytesClave;
+        if (clave.isBlank()) {
+            bytesClave = new byte[32];
+            new SecureRandom().nextBytes(bytesClave);
+            if (activo) log.warn("ahorcado.tokens.clave está vacía: se usa una clave aleatoria que solo vale para este servidor");
+        } else {
+            bytesClave = clave.getBytes(StandardCharsets.UTF_8);
+        }
+        this.clave = new SecretKeySpec(bytesClave, ALGORITMO);
+        this.macs = ThreadLocal.withInitial(this::nuevoMac);
+    }
+
+    /**
+     * @return true si las partidas individuales viajan en tokens en lugar de guardarse en el servidor.
+     */
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Deriva de la clave de los tokens otra clave para un uso distinto, así no se firma nada más con la misma clave.
+     *
+     * @param uso Nombre del uso, cada uso da una clave distinta.
+     * @return La clave derivada, en Base64.
+     */
+    public String derivarClave(String uso) {
+        Mac mac = macs.get();
+        return Base64.getEncoder().encodeToString(mac.doFinal(("ahorcado:" + uso).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Codifica y firma el estado de la partida.
+     *
+     * @param partida Partida individual con la palabra tomada del corpus.
+     * @param jugador Jugador de la partida, el token solo valdrá para él.
+     * @return El token de la partida.
+     */
+    public String codificar(Game partida, String jugador) {
+        ByteBuffer token = ByteBuffer.allocate(TAMANO_DATOS + TAMANO_FIRMA);
+        partida.consultar(() -> {
+            int version = partida.siguienteVersionToken();
+            long finTurno = System.currentTimeMillis() + partida.milisegundosRestantesTurno();
+            return token.put(VERSION)
+                    .putInt(partida.getIndicePalabra())
+                    .putInt(partida.getPalabra().hashCode())
+                    .putInt(partida.getLetrasProbadas().getBits())
+                    .put((byte) ((partida.palabraDescubierta() ? PALABRA_ACERTADA : 0)
+                            | (partida.estadisticasRegistradas() ? ESTADISTICAS_REGISTRADAS : 0)
+                            | (partida.clasificada() ? CLASIFICADA : 0)))
+                    .put((byte) partida.getFallos())
+                    .putLong(finTurno)
+                    .putLong(partida.getId())
+                    .putInt(version);
+        });
+        token.put(firmar(token.array(), TAMANO_DATOS, jugador), 0, TAMANO_FIRMA);
+        ultimos.merge(partida.getId(), token.array(), TokenPartida::masReciente);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * Comprueba la firma del token y reconstruye la partida.
+     *
+     * @param token   Token recibido del navegador.
+     * @param jugador Jugador que lo envía.
+     * @param corpus  Corpus actual del diccionario.
+     * @return La partida del último token visto de la misma partida, o vacío si el token no es válido, está manipulado,
+     * es de otro jugador o de otro diccionario.
+     */
+    public Optional<Game> decodificar(String token, String jugador, Corpus corpus) {
+        if (token == null || token.isEmpty()) return Optional.empty();
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (bytes.length != TAMANO_DATOS + TAMANO_FIRMA || bytes[0] != VERSION) return Optional.empty();
+
+        byte[] firma = Arrays.copyOf(firmar(bytes, TAMANO_DATOS, jugador), TAMANO_FIRMA);
+        if (!MessageDigest.isEqual(firma, Arrays.copyOfRange(bytes, TAMANO_DATOS, bytes.length))) return Optional.empty();
+
+        // Con el token ya verificado, si se ha visto uno más reciente de la partida se sigue con ese
+        // (del mismo jugador, ya que lleva el mismo identificador y solo se guardan tokens verificados)
+        bytes = ultimos.merge(id(bytes), bytes, TokenPartida::masReciente);
+
+        ByteBuffer datos = ByteBuffer.wrap(bytes, 1, TAMANO_DATOS - 1);
+        int indice = datos.getInt();
+        int hashPalabra = datos.getInt();
+        if (indice < 0 || indice >= corpus.tamano() || corpus.palabra(indice).hashCode() != hashPalabra) return Optional.empty();
+
+        int letrasProbadas = datos.getInt();
+        byte marcas = datos.get();
+        int fallos = datos.get();
+        long restantes = datos.getLong() - System.currentTimeMillis();
+        long id = datos.getLong();
+        int version = datos.getInt();
+
+        Game partida = new Game(corpus, indice, letrasProbadas, (marcas & PALABRA_ACERTADA) != 0, fallos, restantes,
+                id, version);
+        if ((marcas & ESTADISTICAS_REGISTRADAS) != 0) partida.marcarEstadisticasRegistradas();
+        if ((marcas & CLASIFICADA) != 0) partida.marcarClasificada();
+        return Optional.of(partida);
+    }
+
+    /**
+     * Codifica y firma el criterio de palabra del jugador y el estado de su mazo.
+     *
+     * @param criterio Criterio de palabra elegido.
+     * @param mazo     Mazo del jugador con ese criterio.
+     * @param jugador  Jugador del mazo, el token solo valdrá para él.
+     * @return El token del mazo.
+     */
+    public String codificarMazo(SelectorPalabras.Criterio criterio, MazoPalabras mazo, String jugador) {
+        byte[] categoria = criterio.categoria() == null ? new byte[0] : criterio.categoria().getBytes(StandardCharsets.UTF_8);
+        int tamano = TAMANO_DATOS_MAZO + categoria.length;
+        MazoPalabras.Estado estado = mazo.estado();
+        ByteBuffer token = ByteBuffer.allocate(tamano + TAMANO_FIRMA)
+                .put(VERSION_MAZO)
+                .put((byte) (criterio.dificultad() == null ? -1 : criterio.dificultad().ordinal()))
+                .put((byte) (criterio.longitud() == null ? -1 : criterio.longitud().ordinal()))
+                .putLong(estado.semilla())
+                .putInt(estado.vuelta())
+                .putInt(estado.ultima())
+                .putInt(estado.siguiente())
+                .putInt(estado.huella())
+                .put(categoria);
+        token.put(firmar(token.array(), tamano, jugador), 0, TAMANO_FIRMA);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * Comprueba la firma del token del mazo y lo descodifica.
+     *
+     * @param token   Token recibido del navegador.
+     * @param jugador Jugador que lo envía.
+     * @return El criterio y el estado del mazo, o vacío si el token no es válido, está manipulado o es de otro jugador.
+     */
+    public Optional<MazoGuardado> decodificarMazo(String token, String jugador) {
+        if (token == null || token.isEmpty()) return Optional.empty();
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        int tamano = bytes.length - TAMANO_FIRMA;
+        if (tamano < TAMANO_DATOS_MAZO || bytes[0] != VERSION_MAZO) return Optional.empty();
+
+        byte[] firma = Arrays.copyOf(firmar(bytes, tamano, jugador), TAMANO_FIRMA);
+        if (!MessageDigest.isEqual(firma, Arrays.copyOfRange(bytes, tamano, bytes.length))) return Optional.empty();
+
+        ByteBuffer datos = ByteBuffer.wrap(bytes, 1, tamano - 1);
+        int dificultad = datos.get();
+        int longitud = datos.get();
+        SelectorPalabras.Dificultad[] dificultades = SelectorPalabras.Dificultad.values();
+        SelectorPalabras.Longitud[] longitudes = SelectorPalabras.Longitud.values();
+        if (dificultad >= dificultades.length || longitud >= longitudes.length) return Optional.empty();
+
+        MazoPalabras.Estado estado = new MazoPalabras.Estado(datos.getLong(), datos.getInt(), datos.getInt(),
+                datos.getInt(), datos.getInt());
+        String categoria = tamano == TAMANO_DATOS_MAZO ? null
+                : new String(bytes, TAMANO_DATOS_MAZO, tamano - TAMANO_DATOS_MAZO, StandardCharsets.UTF_8);
+        SelectorPalabras.Criterio criterio = new SelectorPalabras.Criterio(dificultad < 0 ? null : dificultades[dificultad],
+                categoria, longitud < 0 ? null : longitudes[longitud]);
+        return Optional.of(new MazoGuardado(criterio, estado));
+    }
+
+    /**
+     * Criterio de palabra y mazo guardados en un token.
+     *
+     * @param criterio Criterio de palabra elegido por el jugador.
+     * @param mazo     Estado de su mazo.
+     */
+    public record MazoGuardado(SelectorPalabras.Criterio criterio, MazoPalabras.Estado mazo) {
+    }
+
+    private static long id(byte[] token) {
+        return ByteBuffer.wrap(token).getLong(TAMANO_DATOS - 12);
+    }
+
+    private static byte[] masReciente(byte[] token, byte[] otro) {
+        ByteBuffer a = ByteBuffer.wrap(token), b = ByteBuffer.wrap(otro);
+        return a.getInt(TAMANO_DATOS - 4) >= b.getInt(TAMANO_DATOS - 4) ? token : otro;
+    }
+
+    private byte[] firmar(byte[] datos, int longitud, String jugador) {
+        Mac mac = macs.get();
+        mac.update(datos, 0, longitud);
+        return mac.doFinal(String.valueOf(jugador).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
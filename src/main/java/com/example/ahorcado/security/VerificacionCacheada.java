@@ -0,0 +1,118 @@
+package com.example.ahorcado.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificador de contraseñas que recuerda durante un tiempo las comprobaciones correctas, así un jugador que vuelve
+ * a iniciar sesión no paga otra vez el coste de BCrypt. Solo se guardan las comprobaciones correctas, cada intento
+ * con una contraseña equivocada sigue costando un BCrypt completo. Si llegan a la vez varias comprobaciones iguales
+ * (muchos inicios de sesión de la misma cuenta) solo se hace una y las demás esperan su resultado.
+ * No se guarda la contraseña sino un HMAC-SHA256 de ella junto con su hash BCrypt, que cambia si cambia la contraseña.
+ * La clave del HMAC es aleatoria y solo existe en la memoria de este proceso, así lo recordado no sirve para
+ * adivinar contraseñas por fuerza bruta. Las comprobaciones se recuerdan en un LRU acotado: al llenarse se olvida
+ * la menos usada, sin recorrer las demás.
+ */
+public class VerificacionCacheada implements PasswordEncoder {
+    private final PasswordEncoder codificador;
+    private final int maximo;
+    private final long duracion; // Nanosegundos que se recuerda una comprobación.
+    private final Map<String, Long> correctas; // Clave -> instante (nanoTime) en que caduca, de menos a más usada.
+    private final Mac prototipo; // HMAC con la clave de este proceso, se clona para cada comprobación.
+    private final Map<String, CompletableFuture<Boolean>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * @param codificador Codificador que comprueba las contraseñas, BCrypt.
+     * @param maximo      Número máximo de comprobaciones recordadas.
+     * @param minutos     Minutos que se recuerda cada comprobación.
+     */
+    public VerificacionCacheada(PasswordEncoder codificador, int maximo, long minutos) {
+        this.codificador = codificador;
+        this.maximo = maximo;
+        this.duracion = TimeUnit.MINUTES.toNanos(minutos);
+        this.correctas = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > VerificacionCacheada.this.maximo || eldest.getValue() - System.nanoTime() <= 0;
+            }
+        });
+
+        byte[] clave = new byte[32];
+        new SecureRandom().nextBytes(clave);
+        try {
+            prototipo = Mac.getInstance("HmacSHA256");
+            prototipo.init(new SecretKeySpec(clave, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String encode(CharSequence contrasena) {
+        return codificador.encode(contrasena);
+    }
+
+    @Override
+    public boolean matches(CharSequence contrasena, String codificada) {
+        if (contrasena == null || codificada == null) return codificador.matches(contrasena, codificada);
+
+        String clave = clave(contrasena, codificada);
+        Long caduca = correctas.get(clave);
+        if (caduca != null) {
+            if (caduca - System.nanoTime() > 0) return true;
+            correctas.remove(clave);
+        }
+
+        CompletableFuture<Boolean> propia = new CompletableFuture<>();
+        CompletableFuture<Boolean> otra = enCurso.putIfAbsent(clave, propia);
+        if (otra != null) return otra.join();
+        try {
+            boolean correcta = codificador.matches(contrasena, codificada);
+            if (correcta) correctas.put(clave, System.nanoTime() + duracion);
+            propia.complete(correcta);
+            return correcta;
+        } catch (RuntimeException e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String codificada) {
+        return codificador.upgradeEncoding(codificada);
+    }
+
+    /**
+     * @return Número de comprobaciones recordadas, incluidas las caducadas que aún no se han borrado.
+     */
+    public int tamano() {
+        return correctas.size();
+    }
+
+    private String clave(CharSequence contrasena, String codificada) {
+        Mac hmac;
+        try {
+            hmac = (Mac) prototipo.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        hmac.update(codificada.getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        hmac.update(contrasena.toString().getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hmac.doFinal());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ahorcado.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Envía a los navegadores los cambios de las partidas mediante Server-Sent Events, así la página se actualiza
+ * sin recargarse ni preguntar al servidor cada poco tiempo. Cada navegador se suscribe al canal de su partida.
+ * Los envíos se hacen en un hilo propio para que quien publica (una petición o la rueda de temporizadores) nunca espere a la red.
+ */
+@Service
+@Slf4j
+public class CanalEventos {
+    private static final long DURACION_SUSCRIPCION = 30 * 60_000; // 30 minutos, después el navegador se reconecta solo
+
+    private final Map<String, Set<SseEmitter>> suscriptores = new ConcurrentHashMap<>();
+    private final ExecutorService envios = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "eventos-partidas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * Suscribe un navegador a los eventos de un canal.
+     *
+     * @param canal Canal de la partida.
+     * @return La conexión por la que se enviarán los eventos.
+     */
+    public SseEmitter suscribir(String canal) {
+        SseEmitter emisor = new SseEmitter(DURACION_SUSCRIPCION);
+        suscriptores.compute(canal, (k, emisores) -> {
+            Set<SseEmitter> conjunto = emisores != null ? emisores : ConcurrentHashMap.newKeySet();
+            conjunto.add(emisor);
+            return conjunto;
+        });
+
+        Runnable baja = () -> darDeBaja(canal, emisor);
+        emisor.onCompletion(baja);
+        emisor.onTimeout(baja);
+        emisor.onError(e -> baja.run());
+        return emisor;
+    }
+
+    /**
+     * @param canal Canal de la partida.
+     * @return true si algún navegador está suscrito al canal.
+     */
+    public boolean tieneSuscriptores(String canal) {
+        return suscriptores.containsKey(canal);
+    }
+
+    /**
+     * Envía un evento a todos los suscriptores del canal, sin esperar a que se envíe.
+     *
+     * @param canal  Canal de la partida.
+     * @param evento Nombre del evento.
+     * @param datos  Datos del evento, se envían en JSON.
+     */
+    public void publicar(String canal, String evento, Object datos) {
+        Set<SseEmitter> emisores = suscriptores.get(canal);
+        if (emisores == null) return;
+
+        envios.execute(() -> {
+            for (SseEmitter emisor : emisores) {
+                try {
+                    emisor.send(SseEmitter.event().name(evento).data(datos));
+                } catch (IOException | IllegalStateException e) {
+                    // El navegador se ha desconectado
+                    darDeBaja(canal, emisor);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Número de navegadores suscritos.
+     */
+    public int numeroSuscriptores() {
+        return suscriptores.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void darDeBaja(String canal, SseEmitter emisor) {
+        suscriptores.computeIfPresent(canal, (k, emisores) -> {
+            emisores.remove(emisor);
+            return emisores.isEmpty() ? null : emisores;
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        envios.shutdownNow();
+        suscriptores.values().forEach(emisores -> emisores.forEach(SseEmitter::complete));
+    }
+}
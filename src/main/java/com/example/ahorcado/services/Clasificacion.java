@@ -0,0 +1,140 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Clasificación de los jugadores por partidas individuales ganadas, con sus derrotas y rachas de victorias.
+ * Los jugadores se guardan ordenados en una skip list que se actualiza al terminar cada partida (O(log n)),
+ * así leer los K primeros solo recorre K entradas en lugar de ordenar a todos los jugadores en cada petición.
+ * Los contadores se guardan con la escritura diferida y se recuperan al arrancar.
+ */
+@Service
+public class Clasificacion {
+    private static final String VICTORIAS = "victorias:";
+    private static final String DERROTAS = "derrotas:";
+    private static final String RACHA = "racha:";
+    private static final String MEJOR_RACHA = "mejorRacha:";
+
+    /**
+     * Orden de la clasificación: más victorias, mejor racha, menos derrotas y por último el nombre.
+     */
+    private static final Comparator<EstadisticasJugador> ORDEN = Comparator
+            .comparingInt(EstadisticasJugador::victorias).reversed()
+            .thenComparing(Comparator.comparingInt(EstadisticasJugador::mejorRacha).reversed())
+            .thenComparingInt(EstadisticasJugador::derrotas)
+            .thenComparing(EstadisticasJugador::jugador);
+
+    private final EscrituraDiferida escritura;
+    private final Map<String, EstadisticasJugador> jugadores = new ConcurrentHashMap<>();
+    private final NavigableSet<EstadisticasJugador> orden = new ConcurrentSkipListSet<>(ORDEN);
+
+    public Clasificacion(EscrituraDiferida escritura) {
+        this.escritura = escritura;
+        escritura.cargarEstadisticas().forEach(this::restaurar);
+        orden.addAll(jugadores.values());
+    }
+
+    /**
+     * Suma el resultado de una partida terminada al jugador. Cada partida solo se suma una vez aunque se llame varias veces.
+     *
+     * @param jugador Jugador de la partida.
+     * @param partida Partida terminada.
+     */
+    public void registrar(String jugador, Game partida) {
+        if (jugador == null) return;
+        // Comprobarlo también da por terminada la partida si acaba de descubrirse la palabra o de llegar al máximo de fallos
+        boolean ganada = partida.palabraDescubierta();
+        if (!ganada && !partida.demasiadosFallos() || !partida.marcarClasificada()) return;
+
+        jugadores.compute(jugador, (k, anterior) -> {
+            EstadisticasJugador actual = anterior != null ? anterior : new EstadisticasJugador(jugador, 0, 0, 0, 0);
+            EstadisticasJugador nueva = ganada ? actual.conVictoria() : actual.conDerrota();
+
+            // Dentro de compute, así las actualizaciones de un mismo jugador no se cruzan en la skip list
+            if (anterior != null) orden.remove(anterior);
+            orden.add(nueva);
+
+            escritura.sumar((ganada ? VICTORIAS : DERROTAS) + jugador);
+            escritura.sumar(RACHA + jugador, nueva.racha() - actual.racha());
+            escritura.sumar(MEJOR_RACHA + jugador, nueva.mejorRacha() - actual.mejorRacha());
+            return nueva;
+        });
+    }
+
+    /**
+     * @param k Número de jugadores.
+     * @return Los K primeros jugadores de la clasificación, en orden.
+     */
+    public List<EstadisticasJugador> primeros(int k) {
+        List<EstadisticasJugador> primeros = new ArrayList<>(Math.min(k, 128));
+        Iterator<EstadisticasJugador> iterador = orden.iterator();
+        while (primeros.size() < k && iterador.hasNext()) {
+            primeros.add(iterador.next());
+        }
+        return primeros;
+    }
+
+    /**
+     * @param jugador Nombre del jugador.
+     * @return Las estadísticas del jugador, a cero si aún no ha terminado ninguna partida.
+     */
+    public EstadisticasJugador de(String jugador) {
+        return jugadores.getOrDefault(jugador, new EstadisticasJugador(jugador, 0, 0, 0, 0));
+    }
+
+    /**
+     * @return Número de jugadores en la clasificación.
+     */
+    public int tamano() {
+        return jugadores.size();
+    }
+
+    private void restaurar(String clave, long valor) {
+        for (String prefijo : new String[]{VICTORIAS, DERROTAS, RACHA, MEJOR_RACHA}) {
+            if (!clave.startsWith(prefijo)) continue;
+
+            String jugador = clave.substring(prefijo.length());
+            int cantidad = (int) valor;
+            jugadores.compute(jugador, (k, anterior) -> {
+                EstadisticasJugador e = anterior != null ? anterior : new EstadisticasJugador(jugador, 0, 0, 0, 0);
+                return switch (prefijo) {
+                    case VICTORIAS -> new EstadisticasJugador(jugador, e.victorias() + cantidad, e.derrotas(), e.racha(), e.mejorRacha());
+                    case DERROTAS -> new EstadisticasJugador(jugador, e.victorias(), e.derrotas() + cantidad, e.racha(), e.mejorRacha());
+                    case RACHA -> new EstadisticasJugador(jugador, e.victorias(), e.derrotas(), e.racha() + cantidad, e.mejorRacha());
+                    default -> new EstadisticasJugador(jugador, e.victorias(), e.derrotas(), e.racha(), e.mejorRacha() + cantidad);
+                };
+            });
+            return;
+        }
+    }
+
+    /**
+     * Estadísticas de un jugador en sus partidas individuales.
+     *
+     * @param jugador    Nombre del jugador.
+     * @param victorias  Partidas ganadas.
+     * @param derrotas   Partidas perdidas.
+     * @param racha      Victorias seguidas hasta ahora.
+     * @param mejorRacha Mayor número de victorias seguidas.
+     */
+    public record EstadisticasJugador(String jugador, int victorias, int derrotas, int racha, int mejorRacha) {
+
+        private EstadisticasJugador conVictoria() {
+            return new EstadisticasJugador(jugador, victorias + 1, derrotas, racha + 1, Math.max(mejorRacha, racha + 1));
+        }
+
+        private EstadisticasJugador conDerrota() {
+            return new EstadisticasJugador(jugador, victorias, derrotas + 1, 0, mejorRacha);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ahorcado.services;
+
+/**
+ * Conjunto inmutable de entradas (palabra, pista, categoría y dificultad) del que se eligen las palabras de las partidas.
+ * Las entradas se identifican por su posición, de 0 a {@link #tamano()} - 1.
+ */
+public interface Corpus {
+    /**
+     * Dificultad de una entrada que no la indica.
+     */
+    int SIN_DIFICULTAD = 0;
+
+    /**
+     * @return Número de entradas.
+     */
+    int tamano();
+
+    /**
+     * @param indice Posición de la entrada.
+     * @return La palabra en mayúsculas.
+     */
+    String palabra(int indice);
+
+    /**
+     * @param indice Posición de la entrada.
+     * @return La pista de la palabra.
+     */
+    String pista(int indice);
+
+    /**
+     * @param indice Posición de la entrada.
+     * @return La categoría de la palabra, en minúsculas.
+     */
+    String categoria(int indice);
+
+    /**
+     * @param indice Posición de la entrada.
+     * @return La dificultad indicada por el autor del corpus (1 a 3) o {@link #SIN_DIFICULTAD}.
+     */
+    int dificultad(int indice);
+
+    /**
+     * @param palabra Palabra a buscar.
+     * @return La posición de la palabra o -1 si no está en el corpus.
+     */
+    int indice(String palabra);
+}
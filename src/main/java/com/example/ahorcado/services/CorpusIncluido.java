@@ -0,0 +1,142 @@
+package com.example.ahorcado.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corpus con las palabras incluidas en el juego, se usa cuando no se configura un fichero de palabras.
+ */
+final class CorpusIncluido implements Corpus {
+    private final Map<String, Integer> indices; // Posición de cada palabra en la lista.
+
+    CorpusIncluido() {
+        Map<String, Integer> mapa = new HashMap<>();
+        for (int i = 0; i < PALABRAS.size(); i++) {
+            mapa.put(PALABRAS.get(i), i);
+        }
+        this.indices = Map.copyOf(mapa);
+    }
+
+    @Override
+    public int tamano() {
+        return PALABRAS.size();
+    }
+
+    @Override
+    public String palabra(int indice) {
+        return PALABRAS.get(indice);
+    }
+
+    @Override
+    public String pista(int indice) {
+        return PISTAS.get(indice);
+    }
+
+    @Override
+    public String categoria(int indice) {
+        return CATEGORIAS.get(indice);
+    }
+
+    @Override
+    public int dificultad(int indice) {
+        return SIN_DIFICULTAD;
+    }
+
+    @Override
+    public int indice(String palabra) {
+        return indices.getOrDefault(palabra, -1);
+    }
+
+
+    private static final List<String> PALABRAS = List.of(
+            "CASA", "PERRO", "GATO", "FLOR", "COCHE", "SOL", "LUNA", "MAR", "MONTAÑA", "RIO",
+            "MESA", "SILLA", "VENTANA", "PUERTA", "JARDIN", "CIELO", "TIERRA", "AIRE", "FUEGO", "AGUA",
+            "MANZANA", "PLATANO", "UVA", "NARANJA", "LIMON", "KIWI", "SANDIA", "FRESA", "PIÑA", "MELOCOTON",
+            "LIBRO", "PAPEL", "LAPICERO", "TIJERAS", "PEGAMENTO", "GOMA", "PIZARRA", "MAESTRO", "ESCUELA", "ALUMNO",
+            "AMIGO", "FAMILIA", "PADRE", "MADRE", "HERMANO", "HERMANA", "ABUELO", "ABUELA", "TIO", "TIA",
+            "COMIDA", "CENA", "DESAYUNO", "TELEVISOR", "PANTALLA", "SOMBRILLA", "VENTILADOR", "CUBIERTOS", "RELOJ",
+            "CALENDARIO", "MONITOR", "TELEFONO", "COMPUTADORA", "ESPEJO", "CUCHARA", "TENEDOR", "CUCHILLO", "ESCALERA"
+    );
+
+
+    private static final List<String> PISTAS = List.of(
+            "Lugar donde vives.", // CASA
+            "Un amigo de cuatro patas.", // PERRO
+            "Un felino doméstico.", // GATO
+            "Una planta que suele ser colorida.", // FLOR
+            "Medio de transporte con cuatro ruedas.", // COCHE
+            "La estrella que brilla en el cielo durante el día.", // SOL
+            "El satélite natural de la Tierra.", // LUNA
+            "Gran extensión de agua salada.", // MAR
+            "Elevación natural del terreno.", // MONTAÑA
+            "Agua que fluye continuamente.", // RIO
+            "Mueble utilizado para poner objetos.", // MESA
+            "Asiento con respaldo para sentarse.", // SILLA
+            "Abertura en la pared para ver afuera.", // VENTANA
+            "Permite entrar o salir de un espacio.", // PUERTA
+            "Área con plantas y flores.", // JARDIN
+            "La atmósfera sobre la Tierra durante el día.", // CIELO
+            "Nuestro planeta.", // TIERRA
+            "Lo que respiramos.", // AIRE
+            "Elemento que puede arder.", // FUEGO
+            "Esencial para la vida.", // AGUA
+            "Una fruta roja y jugosa.", // MANZANA
+            "Una fruta amarilla y alargada.", // PLATANO
+            "Pequeñas frutas verdes o moradas.", // UVA
+            "Una fruta cítrica de color naranja.", // NARANJA
+            "Una fruta cítrica amarilla.", // LIMON
+            "Una fruta pequeña y verde con semillas negras.", // KIWI
+            "Una fruta grande, verde por fuera y roja por dentro.", // SANDIA
+            "Pequeña fruta roja y dulce.", // FRESA
+            "Una fruta tropical con una cáscara dura y escamosa.", // PIÑA
+            "Una fruta jugosa con una piel aterciopelada.", // MELOCOTON
+            "Un objeto con páginas que se lee para aprender o entretenerse.", // LIBRO
+            "Hoja fina utilizada para escribir o imprimir.", // PAPEL
+            "Un instrumento para escribir o dibujar.", // LAPICERO
+            "Se utilizan para cortar papel o tela.", // TIJERAS
+            "Se utiliza para unir objetos.", // PEGAMENTO
+            "Un objeto elástico para borrar lápiz.", // GOMA
+            "Superficie en la que se puede escribir o dibujar con tiza.", // PIZARRA
+            "Persona que enseña a otros.", // MAESTRO
+            "Lugar donde se aprende y se educa.", // ESCUELA
+            "Persona que estudia en la escuela.", // ALUMNO
+            "Una persona con la que tienes una relación cercana.", // AMIGO
+            "El grupo de personas con la que tienes lazos familiares.", // FAMILIA
+            "Un progenitor masculino.", // PADRE
+            "Una progenitora femenina.", // MADRE
+            "Hijo de tus padres.", // HERMANO
+            "Hija de tus padres.", // HERMANA
+            "El padre de uno de tus padres.", // ABUELO
+            "La madre de uno de tus padres.", // ABUELA
+            "El hermano de uno de tus padres.", // TIO
+            "La hermana de uno de tus padres.", // TIA
+            "Alimento que se consume durante el día.", // COMIDA
+            "La última comida del día.", // CENA
+            "La primera comida del día.", // DESAYUNO
+            "Este dispositivo muestra programas y películas.", // TELEVISOR
+            "Se utiliza para ver imágenes en dispositivos electrónicos.", // PANTALLA
+            "Te protege del sol en la playa o en un día lluvioso.", // SOMBRILLA
+            "Proporciona aire fresco en días calurosos.", // VENTILADOR
+            "Utensilios de mesa que incluyen cuchillo, tenedor y cuchara.", // CUBIERTOS
+            "Te dice la hora en cualquier momento del día.", // RELOJ
+            "Te ayuda a realizar un seguimiento de fechas importantes y eventos.", // CALENDARIO
+            "La pantalla de una computadora o dispositivo similar.", // MONITOR
+            "Puedes hacer llamadas y enviar mensajes con este dispositivo.", // TELEFONO
+            "Una máquina que te permite realizar tareas digitales.", // COMPUTADORA
+            "Te muestra tu propio reflejo.", // ESPEJO
+            "Se usa para servir alimentos líquidos o para comer.", // CUCHARA
+            "Ayuda a comer alimentos sólidos y a pincharlos.", // TENEDOR
+            "Un utensilio afilado para cortar alimentos.", // CUCHILLO
+            "La usas para subir o bajar de un lugar elevado."); // ESCALERA
+
+    private static final List<String> CATEGORIAS = List.of(
+            "hogar", "animales", "animales", "naturaleza", "objetos", "naturaleza", "naturaleza", "naturaleza", "naturaleza", "naturaleza",
+            "hogar", "hogar", "hogar", "hogar", "hogar", "naturaleza", "naturaleza", "naturaleza", "naturaleza", "naturaleza",
+            "frutas", "frutas", "frutas", "frutas", "frutas", "frutas", "frutas", "frutas", "frutas", "frutas",
+            "escuela", "escuela", "escuela", "escuela", "escuela", "escuela", "escuela", "escuela", "escuela", "escuela",
+            "familia", "familia", "familia", "familia", "familia", "familia", "familia", "familia", "familia", "familia",
+            "comidas", "comidas", "comidas", "objetos", "objetos", "objetos", "objetos", "objetos", "objetos",
+            "objetos", "objetos", "objetos", "objetos", "objetos", "objetos", "objetos", "objetos", "objetos"
+    );
+}
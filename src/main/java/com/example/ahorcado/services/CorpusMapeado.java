@@ -0,0 +1,151 @@
+package com.example.ahorcado.services;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Corpus leído de un fichero de texto UTF-8 proyectado en memoria. Cada línea es una entrada con los campos
+ * separados por tabuladores: {@code PALABRA\tpista\tcategoria\tdificultad}; la categoría y la dificultad son opcionales
+ * y las líneas vacías o que empiezan por # se ignoran.
+ * <p>
+ * En el heap solo se guarda la posición de cada línea en el fichero y una tabla hash de posiciones para buscar
+ * palabras, los textos se leen del fichero al pedirlos. Así el arranque y la memoria apenas crecen con corpus
+ * de cientos de miles de palabras.
+ */
+final class CorpusMapeado implements Corpus {
+    private static final byte TABULADOR = '\t';
+    private static final byte FIN_LINEA = '\n';
+
+    private final MappedByteBuffer fichero;
+    private final int[] inicios; // Posición en el fichero del comienzo de cada entrada.
+    private final int[] tabla; // Tabla hash (direccionamiento abierto) de posición + 1 de cada palabra.
+
+    private CorpusMapeado(MappedByteBuffer fichero, int[] inicios) {
+        this.fichero = fichero;
+        this.inicios = inicios;
+        this.tabla = new int[Integer.highestOneBit(Math.max(1, inicios.length)) << 2];
+        for (int i = 0; i < inicios.length; i++) {
+            int hueco = hueco(palabra(i));
+            if (tabla[hueco] == 0) tabla[hueco] = i + 1; // Si la palabra está repetida se queda la primera
+        }
+    }
+
+    /**
+     * Proyecta el fichero en memoria y localiza sus entradas.
+     *
+     * @param ruta Ruta del fichero.
+     * @return El corpus del fichero.
+     * @throws IOException Si no se puede leer el fichero o es demasiado grande.
+     */
+    static CorpusMapeado cargar(Path ruta) throws IOException {
+        MappedByteBuffer fichero;
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) throw new IOException("Fichero de palabras demasiado grande: " + ruta);
+            fichero = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+
+        int[] inicios = new int[1024];
+        int n = 0;
+        int limite = fichero.limit();
+        for (int inicio = 0; inicio < limite; ) {
+            int fin = finDeLinea(fichero, inicio);
+            byte primero = fichero.get(inicio);
+            if (fin > inicio && primero != '#' && primero != TABULADOR && primero != '\r') {
+                if (n == inicios.length) inicios = Arrays.copyOf(inicios, n * 2);
+                inicios[n++] = inicio;
+            }
+            inicio = fin + 1;
+        }
+        return new CorpusMapeado(fichero, Arrays.copyOf(inicios, n));
+    }
+
+    @Override
+    public int tamano() {
+        return inicios.length;
+    }
+
+    @Override
+    public String palabra(int indice) {
+        return campo(indice, 0).toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public String pista(int indice) {
+        return campo(indice, 1);
+    }
+
+    @Override
+    public String categoria(int indice) {
+        return campo(indice, 2).toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public int dificultad(int indice) {
+        try {
+            return Math.max(SIN_DIFICULTAD, Math.min(3, Integer.parseInt(campo(indice, 3))));
+        } catch (NumberFormatException e) {
+            return SIN_DIFICULTAD;
+        }
+    }
+
+    @Override
+    public int indice(String palabra) {
+        int hueco = hueco(palabra);
+        return tabla[hueco] - 1;
+    }
+
+    /**
+     * Busca el hueco de la tabla hash que ocupa la palabra, o el hueco libre donde iría.
+     */
+    private int hueco(String palabra) {
+        int mascara = tabla.length - 1;
+        int hash = palabra.hashCode();
+        int hueco = (hash ^ (hash >>> 16)) & mascara;
+        while (tabla[hueco] != 0 && !palabra(tabla[hueco] - 1).equals(palabra)) {
+            hueco = (hueco + 1) & mascara;
+        }
+        return hueco;
+    }
+
+    /**
+     * Lee un campo de una entrada del fichero.
+     *
+     * @param indice Posición de la entrada.
+     * @param numero Número del campo empezando en 0.
+     * @return El texto del campo o una cadena vacía si la entrada no lo tiene.
+     */
+    private String campo(int indice, int numero) {
+        int inicio = inicios[indice];
+        int finLinea = finDeLinea(fichero, inicio);
+        if (finLinea > inicio && fichero.get(finLinea - 1) == '\r') finLinea--;
+
+        for (int i = 0; i < numero; i++) {
+            int tab = siguienteTabulador(inicio, finLinea);
+            if (tab == finLinea) return "";
+            inicio = tab + 1;
+        }
+        int fin = siguienteTabulador(inicio, finLinea);
+
+        byte[] bytes = new byte[fin - inicio];
+        fichero.get(inicio, bytes);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    private int siguienteTabulador(int desde, int hasta) {
+        int i = desde;
+        while (i < hasta && fichero.get(i) != TABULADOR) i++;
+        return i;
+    }
+
+    private static int finDeLinea(MappedByteBuffer fichero, int desde) {
+        int i = desde;
+        while (i < fichero.limit() && fichero.get(i) != FIN_LINEA) i++;
+        return i;
+    }
+}
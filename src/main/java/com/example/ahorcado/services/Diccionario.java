@@ -0,0 +1,91 @@
+package com.example.ahorcado.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Diccionario de palabras del juego con sus pistas, compartido por todas las partidas.
+ * Si se configura un fichero de palabras lo proyecta en memoria y lo recarga cuando cambia; si no usa las palabras incluidas.
+ * Cada carga es un {@link Corpus} inmutable que sustituye al anterior sin bloquear las partidas en curso,
+ * que ya tienen su palabra y su pista.
+ */
+@Component
+@Slf4j
+public class Diccionario {
+    private final Path fichero;
+    private volatile Corpus corpus;
+    private String firmaFichero; // Fecha de modificación y tamaño del fichero cargado, o "error" si no se pudo leer.
+
+    public Diccionario(@Value("${ahorcado.diccionario.fichero:}") String fichero) {
+        this.fichero = fichero.isBlank() ? null : Path.of(fichero);
+        this.corpus = new CorpusIncluido();
+        recargarSiCambia();
+    }
+
+    /**
+     * Obtiene el corpus cargado. Para hacer varias consultas relacionadas (tamaño y posición, palabra y pista...)
+     * hay que usar el mismo corpus, ya que el diccionario puede recargarse entre una y otra.
+     *
+     * @return El corpus actual.
+     */
+    public Corpus actual() {
+        return corpus;
+    }
+
+    /**
+     * @return Número de palabras del diccionario.
+     */
+    public int tamano() {
+        return corpus.tamano();
+    }
+
+    /**
+     * Obtiene la pista asociada a una palabra.
+     *
+     * @param palabra Palabra a buscar.
+     * @return La pista de la palabra o null si no está en el diccionario.
+     */
+    public String pista(String palabra) {
+        Corpus actual = corpus;
+        int indice = actual.indice(palabra);
+        return indice < 0 ? null : actual.pista(indice);
+    }
+
+    /**
+     * Comprueba periódicamente si el fichero de palabras ha cambiado y en ese caso lo vuelve a cargar.
+     * Para que las partidas nunca lean un fichero a medio escribir, el fichero se debe sustituir (escribir otro y renombrarlo)
+     * en lugar de modificarlo.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.diccionario.comprobar-ms:5000}")
+    public synchronized void recargarSiCambia() {
+        if (fichero == null) return;
+
+        try {
+            BasicFileAttributes atributos = Files.readAttributes(fichero, BasicFileAttributes.class);
+            String firma = atributos.lastModifiedTime().toMillis() + ":" + atributos.size();
+            if (firma.equals(firmaFichero)) return;
+
+            CorpusMapeado nuevo = CorpusMapeado.cargar(fichero);
+            if (nuevo.tamano() == 0) {
+                log.warn("El fichero de palabras {} no tiene entradas, se mantiene el diccionario actual", fichero);
+            } else {
+                corpus = nuevo;
+                log.info("Cargadas {} palabras de {}", nuevo.tamano(), fichero);
+            }
+            firmaFichero = firma;
+        } catch (IOException e) {
+            // Solo se avisa la primera vez para no repetir el error en cada comprobación
+            if (!"error".equals(firmaFichero)) {
+                log.error("No se pudo cargar el fichero de palabras {}, se mantiene el diccionario actual", fichero, e);
+            }
+            firmaFichero = "error";
+        }
+    }
+}
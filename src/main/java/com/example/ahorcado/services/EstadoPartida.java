@@ -0,0 +1,42 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+
+import java.util.Set;
+
+/**
+ * Estado de una partida que se envía al navegador para actualizar la página sin recargarla.
+ *
+ * @param palabraOculta       Palabra con las letras sin descubrir ocultas, o la palabra completa si ha perdido.
+ * @param fallos              Número de fallos, indica la imagen del ahorcado.
+ * @param letrasProbadas      Letras ya probadas, se ocultan del teclado.
+ * @param terminada           Si la partida ha terminado.
+ * @param ganada              Si se ha descubierto la palabra.
+ * @param segundosRestantes   Segundos que le quedan al turno actual.
+ * @param jugador1            Puntos del jugador 1 en la sala de 2 jugadores, si no null.
+ * @param jugador2            Puntos del jugador 2 en la sala de 2 jugadores, si no null.
+ */
+public record EstadoPartida(String palabraOculta, int fallos, Set<Character> letrasProbadas, boolean terminada,
+                            boolean ganada, long segundosRestantes, Integer jugador1, Integer jugador2) {
+
+    /**
+     * Obtiene el estado actual de la partida. Igual que al mostrar la página, comprueba si la partida ha terminado.
+     * Se lee con el cerrojo de la partida para que todos los datos correspondan al mismo momento.
+     *
+     * @param partida Partida a consultar.
+     * @return El estado de la partida.
+     */
+    public static EstadoPartida de(Game partida) {
+        Sala sala = partida.getSala();
+        return partida.consultar(() -> {
+            boolean perdida = partida.demasiadosFallos();
+            boolean ganada = partida.palabraDescubierta();
+            String palabraOculta = perdida ? partida.getPalabra() : partida.obtenerPalabraOculta();
+
+            return new EstadoPartida(palabraOculta, partida.getFallos(),
+                    new ConjuntoLetras(partida.getLetrasProbadas().getBits()), partida.isPartidaTerminada(), ganada,
+                    (partida.milisegundosRestantesTurno() + 999) / 1000,
+                    sala != null ? sala.getPuntosJugador1() : null, sala != null ? sala.getPuntosJugador2() : null);
+        });
+    }
+}
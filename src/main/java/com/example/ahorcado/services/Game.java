@@ -1,95 +1,354 @@
 package com.example.ahorcado.services;
 
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * La clase `Game` representa una partida del ahorcado. Contiene la lógica y el estado del juego.
+ * Los intentos, los turnos agotados de la rueda de temporizadores y las consultas del estado se ejecutan de uno en uno
+ * con el cerrojo de la propia partida, así ningún fallo se pierde ni se cuenta dos veces. Cada partida tiene su cerrojo,
+ * por lo que partidas distintas nunca se esperan entre sí.
+ * <p>
+ * Los cerrojos son {@link ReentrantLock} y no monitores synchronized, así un hilo virtual que espera a la partida
+ * libera su hilo del sistema. El oyente se avisa después de soltar el cerrojo del estado, con el de los cambios,
+ * que ordena los avisos de una partida sin detener a quien solo consulta su estado.
  */
 @Data
 public class Game {
+    @Setter(AccessLevel.NONE)
+    private long id = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE); // Identifica la partida en el registro de eventos.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int versionToken; // Versión del último token de la partida, crece con cada token nuevo.
+    @Setter(AccessLevel.NONE)
     private String palabra; // La palabra a adivinar.
+    private final int indicePalabra; // Posición de la palabra en el corpus, -1 si la eligió un jugador.
     private String pista; // La pista de la palabra
-    private Set<Character> letrasAcertadas; // Lista de letras adivinadas.
-    private Set<Character> letrasFalladas; // Lista de letras incorrectas.
-    private ArrayList<Character> letrasProbadas; // Lista de letras probadas.
-    private static ArrayList<String> palabrasJugadas = new ArrayList<>(); // Lista de palabras jugadas previamente.
+    private ConjuntoLetras letrasAcertadas; // Lista de letras adivinadas.
+    private ConjuntoLetras letrasFalladas; // Lista de letras incorrectas.
+    private ConjuntoLetras letrasProbadas; // Lista de letras probadas.
     private int fallos; // Contador de fallos.
     private boolean ahorca2; //Partida de 2 jugadores
-    private boolean partidaTerminada; //Si la partida ha finalizado
-    public static int puntosJugador1 = 0;
-    public static int puntosJugador2 = 0;
-    public static int turno = 1;
+    private volatile boolean partidaTerminada; //Si la partida ha finalizado
+    private final Sala sala; // Sala de la partida de 2 jugadores, con su puntuación y turno. Null en partidas individuales.
     private final int MAX_FALLOS = 6;
-    private Timer temporizador;
+    private final long DURACION_TURNO = 10000; // 10000 milisegundos = 10 segundos
+    @Getter(AccessLevel.NONE)
+    private final RuedaTemporizadores.Plazo temporizador = new RuedaTemporizadores.Plazo(this::turnoAgotado);
+    @Getter(AccessLevel.NONE)
+    private final RuedaTemporizadores rueda; // Rueda en la que se programan los turnos, null con el temporizador perezoso.
+    private final boolean temporizadorPerezoso; //Los turnos vencidos se cuentan al consultar la partida, sin temporizador
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long inicioTurno; // Instante (System.nanoTime) en que empezó el turno actual.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final long inicioPartida = System.nanoTime(); // Instante en que empezó la partida, o se recuperó.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long finPartida; // Instante en que terminó la partida, 0 mientras se juega.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private BitSet posicionesDescubiertas; // Posiciones de la palabra ya descubiertas.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private char[] mascara; // Palabra oculta precalculada, cada posición seguida de un espacio.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int letrasOcultas; // Número de posiciones que faltan por descubrir.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String palabraOculta; // Última palabra oculta generada, se descarta al descubrir una letra.
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean estadisticasRegistradas = new AtomicBoolean(); // Si el resultado ya se sumó a las estadísticas.
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean puntuada = new AtomicBoolean(); // Si el resultado ya se sumó al marcador de la sala.
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean clasificada = new AtomicBoolean(); // Si el resultado ya se sumó a la clasificación del jugador.
+    @Getter(AccessLevel.NONE)
+    private OyentePartida oyente; // Recibe los cambios de la partida, puede ser null.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final ReentrantLock cerrojo = new ReentrantLock(); // Protege el estado de la partida.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final ReentrantLock cambios = new ReentrantLock(); // Se toma antes que el del estado y se mantiene hasta avisar al oyente.
 
 
     /**
      * Constructor de la clase `Game`. Inicializa una nueva partida.
+     * @param corpus Corpus del diccionario del que se toma la palabra.
+     * @param indice Posición de la palabra en el corpus.
+     * @param rueda Rueda en la que se programan los turnos, o null para contarlos al consultar la partida (temporizador perezoso).
      */
-    public Game() {
-        this.palabra = palabraRandom(); // Obtiene una palabra aleatoria no jugada previamente.
-        this.pista = obtenerPista();
-        this.letrasAcertadas = new HashSet<>(); // Inicializa la lista de letras adivinadas.
-        this.letrasFalladas = new HashSet<>(); // Inicializa la lista de letras incorrectas.
-        this.letrasProbadas = new ArrayList<>(); // Inicializa la lista de letras probadas.
+    public Game(Corpus corpus, int indice, RuedaTemporizadores rueda) {
+        this.rueda = rueda;
+        this.temporizadorPerezoso = rueda == null;
+        this.sala = null;
+        this.indicePalabra = indice;
+        this.palabra = corpus.palabra(indice);
+        prepararMascara();
+        this.pista = corpus.pista(indice);
+        this.letrasAcertadas = new ConjuntoLetras(); // Inicializa la lista de letras adivinadas.
+        this.letrasFalladas = new ConjuntoLetras(); // Inicializa la lista de letras incorrectas.
+        this.letrasProbadas = new ConjuntoLetras(); // Inicializa la lista de letras probadas.
         this.fallos = 0; // Inicializa el contador de fallos.
         this.ahorca2 = false;
         this.partidaTerminada = false;
-        this.temporizador = new Timer();
         iniciarTemporizador();
     }
 
+    /**
+     * Recupera una partida individual a partir de su estado compacto (el de un token de partida).
+     * Los turnos agotados se cuentan al consultarla, ya que la partida puede seguir en otro servidor.
+     * @param corpus Corpus del diccionario del que se toma la palabra.
+     * @param indice Posición de la palabra en el corpus.
+     * @param letrasProbadas Máscara de las letras probadas.
+     * @param palabraAcertada Si se acertó la palabra entera.
+     * @param fallos Número de fallos.
+     * @param milisegundosRestantes Milisegundos que le quedan al turno actual, negativo si ya se agotó.
+     * @param id Identificador de la partida.
+     * @param versionToken Versión del token del que se recupera.
+     */
+    public Game(Corpus corpus, int indice, int letrasProbadas, boolean palabraAcertada, int fallos, long milisegundosRestantes,
+                long id, int versionToken) {
+        this(corpus, indice, null);
+        this.id = id;
+        this.versionToken = versionToken;
+        for (char letra : new ConjuntoLetras(letrasProbadas)) {
+            this.letrasProbadas.anadir(letra);
+            if (palabra.indexOf(letra) >= 0) {
+                this.letrasAcertadas.anadir(letra);
+                descubrir(letra);
+            } else {
+                this.letrasFalladas.anadir(letra);
+            }
+        }
+        if (palabraAcertada) {
+            for (char letra : palabra.toCharArray()) {
+                this.letrasAcertadas.anadir(letra);
+                descubrir(letra);
+            }
+        }
+        this.fallos = fallos;
+        this.inicioTurno = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(DURACION_TURNO - milisegundosRestantes);
+        if (letrasOcultas == 0 || fallos >= MAX_FALLOS) terminar();
+    }
+
+    /**
+     * Recupera una partida individual guardada. El turno actual empieza de nuevo.
+     * @param instantanea Estado guardado de la partida.
+     * @param rueda Rueda en la que se programan los turnos, o null para contarlos al consultar la partida (temporizador perezoso).
+     */
+    public Game(InstantaneaPartida instantanea, RuedaTemporizadores rueda) {
+        this.rueda = rueda;
+        this.temporizadorPerezoso = rueda == null;
+        this.sala = null;
+        this.indicePalabra = -1;
+        this.palabra = instantanea.palabra();
+        prepararMascara();
+        for (int i = 0; i < palabra.length(); i++) {
+            if (instantanea.palabraOculta().charAt(2 * i) != '_') descubrir(palabra.charAt(i));
+        }
+        this.pista = instantanea.pista();
+        this.letrasAcertadas = new ConjuntoLetras(instantanea.letrasAcertadas());
+        this.letrasFalladas = new ConjuntoLetras(instantanea.letrasFalladas());
+        this.letrasProbadas = new ConjuntoLetras(instantanea.letrasProbadas());
+        this.fallos = instantanea.fallos();
+        this.ahorca2 = false;
+        // Si no, volvería a sumarse el resultado cada vez que se recupera la partida terminada
+        this.estadisticasRegistradas.set(instantanea.estadisticasRegistradas());
+        this.clasificada.set(instantanea.clasificada());
+        if (letrasOcultas == 0 || fallos >= MAX_FALLOS) terminar();
+        else iniciarTemporizador();
+    }
+
     /**
      * Controlador para 2 jugadores inicializa la palabra y la pista con datos del usuario
      * @param palabra Palabra elegida por el usuario
+     * Sin rueda, los turnos agotados se cuentan al consultar la partida.
      * @param pista Pista introducida por el usuario
      */
     public Game(String palabra, String pista) {
+        this(palabra, pista, null, null);
+    }
+
+    /**
+     * Controlador para 2 jugadores inicializa la palabra y la pista con datos del usuario
+     * @param palabra Palabra elegida por el usuario
+     * @param pista Pista introducida por el usuario
+     * @param sala Sala en la que se juega la partida, lleva la puntuación y el turno.
+     * @param rueda Rueda en la que se programan los turnos, o null para contarlos al consultar la partida (temporizador perezoso).
+     */
+    public Game(String palabra, String pista, Sala sala, RuedaTemporizadores rueda) {
+        this.rueda = rueda;
+        this.temporizadorPerezoso = rueda == null;
+        this.sala = sala;
+        this.indicePalabra = -1;
         this.palabra = palabra;
+        prepararMascara();
         this.pista = pista;
-        this.letrasAcertadas = new HashSet<>();
-        this.letrasFalladas = new HashSet<>();
-        this.letrasProbadas = new ArrayList<>();
+        this.letrasAcertadas = new ConjuntoLetras();
+        this.letrasFalladas = new ConjuntoLetras();
+        this.letrasProbadas = new ConjuntoLetras();
         this.fallos = 0;
         this.ahorca2 = true;
         this.partidaTerminada = false;
-        this.temporizador = new Timer();
         iniciarTemporizador();
 
-
     }
 
     /**
-     * Inicia el temporizador con una duración de 10 segundos, si la partida aún no ha terminado se sumará un fallo y se reinicia el temporizador
+     * Empieza un turno de 10 segundos. Si el temporizador no es perezoso lo programa en la rueda.
      */
     private void iniciarTemporizador() {
-        temporizador.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (!partidaTerminada) {
-                    fallos++;
-                    reiniciarTemporizador();
-                }
+        inicioTurno = System.nanoTime();
+        if (rueda != null) rueda.programar(temporizador, DURACION_TURNO);
+    }
+
+    /**
+     * Con el temporizador perezoso suma un fallo por cada turno de 10 segundos agotado desde el inicio del turno actual.
+     * Con el temporizador normal no hace nada, los fallos los suma la rueda al agotarse el turno.
+     */
+    private void contarTurnosAgotados() {
+        if (!temporizadorPerezoso || partidaTerminada) return;
+
+        long duracion = TimeUnit.MILLISECONDS.toNanos(DURACION_TURNO);
+        long agotados = (System.nanoTime() - inicioTurno) / duracion;
+        if (agotados > 0) {
+            fallos += (int) Math.min(agotados, MAX_FALLOS);
+            inicioTurno += agotados * duracion;
+        }
+    }
+
+    /**
+     * @return Milisegundos que le quedan al turno actual, 0 si la partida ha terminado o el turno se ha agotado.
+     */
+    public long milisegundosRestantesTurno() {
+        cerrojo.lock();
+        try {
+            contarTurnosAgotados();
+            if (partidaTerminada) return 0;
+            long transcurridos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioTurno);
+            return Math.max(0, DURACION_TURNO - transcurridos);
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return El número de fallos, incluyendo los turnos agotados si el temporizador es perezoso.
+     */
+    public int getFallos() {
+        cerrojo.lock();
+        try {
+            contarTurnosAgotados();
+            return fallos;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Se ejecuta al agotarse el turno, si la partida aún no ha terminado se sumará un fallo y se reinicia el temporizador.
+     * Si un intento ha empezado otro turno justo mientras vencía el plazo, el turno nuevo no se ha agotado y no cuenta.
+     */
+    private void turnoAgotado() {
+        cambios.lock();
+        try {
+            cerrojo.lock();
+            try {
+                long transcurrido = System.nanoTime() - inicioTurno;
+                if (partidaTerminada || transcurrido < TimeUnit.MILLISECONDS.toNanos(DURACION_TURNO)) return;
+                fallos++;
+                reiniciarTemporizador();
+            } finally {
+                cerrojo.unlock();
             }
-        }, 10000, 10000); // 10000 milisegundos = 10 segundos
+            notificar(OyentePartida.Accion.TIEMPO, null);
+        } finally {
+            cambios.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta la consulta con el cerrojo de la partida, para que todos los datos que lea correspondan al mismo momento.
+     *
+     * @param consulta Lectura del estado de la partida.
+     * @return Lo que devuelve la consulta.
+     */
+    public <T> T consultar(Supplier<T> consulta) {
+        cerrojo.lock();
+        try {
+            return consulta.get();
+        } finally {
+            cerrojo.unlock();
+        }
     }
 
     /**
-     * Método para reiniciar el temporizador.
+     * Avisa al oyente de la partida, si tiene, de que la acción la ha cambiado. Se llama con el cerrojo de los cambios
+     * y sin el del estado, así el oyente puede escribir en disco o publicar sin detener las consultas de la partida.
+     */
+    private void notificar(OyentePartida.Accion accion, String detalle) {
+        if (oyente != null) oyente.cambio(this, accion, detalle);
+    }
+
+    /**
+     * Método para reiniciar el temporizador, vuelve a programar el mismo plazo sin crear uno nuevo.
      */
     private void reiniciarTemporizador() {
-        detenerTemporizador();
-        temporizador = new Timer(); // Crea un nuevo temporizador
         iniciarTemporizador();
     }
 
     /**
      * Método para detener el temporizador.
      */
-    private void detenerTemporizador() {
-        temporizador.cancel(); // Cancela la tarea actual
+    public void detenerTemporizador() {
+        if (rueda != null) rueda.cancelar(temporizador);
+    }
+
+    /**
+     * @return La versión del siguiente token de la partida, una más que la del anterior.
+     */
+    public int siguienteVersionToken() {
+        cerrojo.lock();
+        try {
+            return ++versionToken;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Da por terminada la partida y anota cuándo, solo la primera vez. Se llama con el cerrojo de la partida.
+     */
+    private void terminar() {
+        partidaTerminada = true;
+        detenerTemporizador();
+        if (finPartida == 0) finPartida = System.nanoTime();
+    }
+
+    /**
+     * @return Milisegundos desde que empezó la partida hasta que terminó, o hasta ahora si sigue en juego.
+     */
+    public long milisegundosJugados() {
+        cerrojo.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis((finPartida != 0 ? finPartida : System.nanoTime()) - inicioPartida);
+        } finally {
+            cerrojo.unlock();
+        }
     }
 
     /**
@@ -97,27 +356,71 @@ public class Game {
      * @return Un booleano indicando si la palabra fue descubierta.
      */
     public boolean palabraDescubierta() {
-        if (!obtenerPalabraOculta().contains("_")) {
-            partidaTerminada = true;
-            detenerTemporizador();
-            return true;
+        cerrojo.lock();
+        try {
+            if (letrasOcultas == 0) {
+                terminar();
+                return true;
+            }
+            return false;
+        } finally {
+            cerrojo.unlock();
         }
-        return false;
     }
 
     /**
-     * Si la palabra ha sido descubierta, añade un punto al jugador que corresponda según el turno de la partida.
-     * Independientemente, incrementa el turno de la partida
+     * Si la palabra ha sido descubierta, añade un punto al jugador que corresponda según el turno de la sala.
+     * Independientemente, incrementa el turno de la sala. Cada partida solo se puntúa una vez.
+     * Toma el cerrojo de los cambios pero no el del estado, porque la sala toma primero el suyo y después el de la partida.
      */
     public void establecerPuntuacion() {
-        if (palabraDescubierta()) {
-            if (turno % 2 == 0) {
-                puntosJugador2++;
-            } else {
-                puntosJugador1++;
+        if (sala == null) return;
+        cambios.lock();
+        try {
+            if (sala.puntuar(this)) {
+                notificar(OyentePartida.Accion.PUNTUACION, sala.getPuntosJugador1() + ":" + sala.getPuntosJugador2());
             }
+        } finally {
+            cambios.unlock();
         }
-        turno++;
+    }
+
+    /**
+     * Marca que el resultado de la partida se ha sumado al marcador de la sala.
+     * @return true la primera vez que se llama, false si ya estaba marcada.
+     */
+    boolean marcarPuntuada() {
+        return puntuada.compareAndSet(false, true);
+    }
+
+    /**
+     * Marca que el resultado de la partida se ha sumado a las estadísticas.
+     * @return true la primera vez que se llama, false si ya estaba marcada.
+     */
+    public boolean marcarEstadisticasRegistradas() {
+        return estadisticasRegistradas.compareAndSet(false, true);
+    }
+
+    /**
+     * @return true si el resultado de la partida ya se sumó a las estadísticas.
+     */
+    public boolean estadisticasRegistradas() {
+        return estadisticasRegistradas.get();
+    }
+
+    /**
+     * Marca que el resultado de la partida se ha sumado a la clasificación.
+     * @return true la primera vez que se llama, false si ya estaba marcada.
+     */
+    public boolean marcarClasificada() {
+        return clasificada.compareAndSet(false, true);
+    }
+
+    /**
+     * @return true si el resultado de la partida ya se sumó a la clasificación.
+     */
+    public boolean clasificada() {
+        return clasificada.get();
     }
 
     /**
@@ -125,36 +428,56 @@ public class Game {
      * @return Un booleano si los fallos son igual o superior al máximo
      */
     public boolean demasiadosFallos() {
-        if (fallos >= MAX_FALLOS) {
-            fallos = MAX_FALLOS;
-            partidaTerminada = true;
-            detenerTemporizador();
-            return true;
+        cerrojo.lock();
+        try {
+            contarTurnosAgotados();
+            if (fallos >= MAX_FALLOS) {
+                fallos = MAX_FALLOS;
+                terminar();
+                return true;
+            }
+            return false;
+        } finally {
+            cerrojo.unlock();
         }
-        return false;
     }
 
 
     /**
      * Comprueba si la letra proporcionada por el jugador está presente en la palabra actual
-     * si es asi añade esa letra a la lista de acertadas o falladas, además reinicia el temporizador
+     * si es asi añade esa letra a la lista de acertadas o falladas, además reinicia el temporizador.
+     * Si la letra ya se había probado no cuenta de nuevo.
      *
      * @param letra La letra a probar.
      * @return true si la letra es correcta y está presente en la palabra, false si es incorrecta.
      */
     public boolean probarLetra(char letra) {
-        String posibleLetra = Character.toString(letra).toUpperCase();
-        letrasProbadas.add(letra);
-        if (palabra.contains(posibleLetra)) {
-            letrasAcertadas.add(posibleLetra.charAt(0));
-            reiniciarTemporizador();
-            return true;
-        } else {
-            letrasFalladas.add(posibleLetra.charAt(0));
-            fallos++;
-            reiniciarTemporizador();
-            return false;
+        char posibleLetra = Character.toUpperCase(letra);
+        boolean acertada;
+        cambios.lock();
+        try {
+            cerrojo.lock();
+            try {
+                contarTurnosAgotados();
+                if (!letrasProbadas.anadir(posibleLetra)) return letrasAcertadas.contiene(posibleLetra);
+
+                acertada = palabra.indexOf(posibleLetra) >= 0;
+                if (acertada) {
+                    letrasAcertadas.anadir(posibleLetra);
+                    descubrir(posibleLetra);
+                } else {
+                    letrasFalladas.anadir(posibleLetra);
+                    fallos++;
+                }
+                reiniciarTemporizador();
+            } finally {
+                cerrojo.unlock();
+            }
+            notificar(OyentePartida.Accion.LETRA, String.valueOf(posibleLetra));
+        } finally {
+            cambios.unlock();
         }
+        return acertada;
     }
 
     /**
@@ -165,17 +488,30 @@ public class Game {
      * @return true si el intento es correcto, false si es incorrecto.
      */
     public boolean probarPalabra(String intentoPalabra) {
-        if (palabra.equalsIgnoreCase(intentoPalabra)) {
-            for (char letra : palabra.toCharArray()) {
-                letrasAcertadas.add(letra);
+        boolean acertada;
+        cambios.lock();
+        try {
+            cerrojo.lock();
+            try {
+                contarTurnosAgotados();
+                acertada = palabra.equalsIgnoreCase(intentoPalabra);
+                if (acertada) {
+                    for (char letra : palabra.toCharArray()) {
+                        letrasAcertadas.anadir(letra);
+                        descubrir(letra);
+                    }
+                } else {
+                    fallos++;
+                }
+                reiniciarTemporizador();
+            } finally {
+                cerrojo.unlock();
             }
-            reiniciarTemporizador();
-            return true;
-        } else {
-            fallos++;
-            reiniciarTemporizador();
-            return false;
+            notificar(OyentePartida.Accion.PALABRA, intentoPalabra);
+        } finally {
+            cambios.unlock();
         }
+        return acertada;
     }
 
 
@@ -185,140 +521,43 @@ public class Game {
      * @return Una cadena DE letras o guiones bajos.
      */
     public String obtenerPalabraOculta() {
-        StringBuilder palabraOculta = new StringBuilder();
-        for (char letra : palabra.toCharArray()) {
-            if (letrasAcertadas.contains(letra)) {
-                palabraOculta.append(letra);
-                palabraOculta.append(" ");
-            } else {
-                palabraOculta.append("_");
-                palabraOculta.append(" ");
-            }
+        cerrojo.lock();
+        try {
+            if (palabraOculta == null) palabraOculta = new String(mascara);
+            return palabraOculta;
+        } finally {
+            cerrojo.unlock();
         }
-        return palabraOculta.toString();
-    }
-
-    /**
-     * Obtiene la pista asociada a la palabra actual del juego.
-     *
-     * @return La pista correspondiente a la palabra actual.
-     */
-    public String obtenerPista() {
-        return mapaPalabraPista().get(palabra);
     }
 
     /**
-     * Obtiene una palabra aleatoria que no ha sido jugada previamente.
-     *
-     * @return Una palabra aleatoria del arreglo de palabras.
+     * Prepara la máscara de la palabra con todas las posiciones ocultas.
      */
-    private String palabraRandom() {
-        String palabraRandom;
-        Random random = new Random();
-
-        do {
-            int iRandom = random.nextInt(palabras.size());
-            palabraRandom = palabras.get(iRandom);
-        } while (palabrasJugadas.contains(palabraRandom));
-
-        palabrasJugadas.add(palabraRandom);
-        return palabraRandom;
+    private void prepararMascara() {
+        this.posicionesDescubiertas = new BitSet(palabra.length());
+        this.mascara = new char[palabra.length() * 2];
+        for (int i = 0; i < palabra.length(); i++) {
+            mascara[2 * i] = '_';
+            mascara[2 * i + 1] = ' ';
+        }
+        this.letrasOcultas = palabra.length();
+        this.palabraOculta = null;
     }
 
     /**
-     * Crea y retorna un mapa que asocia cada palabra con su pista correspondiente.
+     * Descubre en la máscara todas las posiciones de la palabra que contienen la letra.
      *
-     * @return Un HashMap que mapea palabras a sus pistas.
+     * @param letra La letra acertada.
      */
-    private HashMap<String, String> mapaPalabraPista() {
-        HashMap<String, String> mapa = new HashMap<>();
-        for (int i = 0; i < palabras.size(); i++) {
-            mapa.put(palabras.get(i), pistas.get(i));
+    private void descubrir(char letra) {
+        for (int i = palabra.indexOf(letra); i >= 0; i = palabra.indexOf(letra, i + 1)) {
+            if (!posicionesDescubiertas.get(i)) {
+                posicionesDescubiertas.set(i);
+                mascara[2 * i] = letra;
+                letrasOcultas--;
+                palabraOculta = null;
+            }
         }
-        return mapa;
     }
 
-
-    private final ArrayList<String> palabras = new ArrayList<>(Arrays.asList(
-            "CASA", "PERRO", "GATO", "FLOR", "COCHE", "SOL", "LUNA", "MAR", "MONTAÑA", "RIO",
-            "MESA", "SILLA", "VENTANA", "PUERTA", "JARDIN", "CIELO", "TIERRA", "AIRE", "FUEGO", "AGUA",
-            "MANZANA", "PLATANO", "UVA", "NARANJA", "LIMON", "KIWI", "SANDIA", "FRESA", "PIÑA", "MELOCOTON",
-            "LIBRO", "PAPEL", "LAPICERO", "TIJERAS", "PEGAMENTO", "GOMA", "PIZARRA", "MAESTRO", "ESCUELA", "ALUMNO",
-            "AMIGO", "FAMILIA", "PADRE", "MADRE", "HERMANO", "HERMANA", "ABUELO", "ABUELA", "TIO", "TIA",
-            "COMIDA", "CENA", "DESAYUNO", "TELEVISOR", "PANTALLA", "SOMBRILLA", "VENTILADOR", "CUBIERTOS", "RELOJ",
-            "CALENDARIO", "MONITOR", "TELEFONO", "COMPUTADORA", "ESPEJO", "CUCHARA", "TENEDOR", "CUCHILLO", "ESCALERA"
-    ));
-
-
-    private final ArrayList<String> pistas = new ArrayList<>(Arrays.asList(
-            "Lugar donde vives.", // CASA
-            "Un amigo de cuatro patas.", // PERRO
-            "Un felino doméstico.", // GATO
-            "Una planta que suele ser colorida.", // FLOR
-            "Medio de transporte con cuatro ruedas.", // COCHE
-            "La estrella que brilla en el cielo durante el día.", // SOL
-            "El satélite natural de la Tierra.", // LUNA
-            "Gran extensión de agua salada.", // MAR
-            "Elevación natural del terreno.", // MONTAÑA
-            "Agua que fluye continuamente.", // RIO
-            "Mueble utilizado para poner objetos.", // MESA
-            "Asiento con respaldo para sentarse.", // SILLA
-            "Abertura en la pared para ver afuera.", // VENTANA
-            "Permite entrar o salir de un espacio.", // PUERTA
-            "Área con plantas y flores.", // JARDIN
-            "La atmósfera sobre la Tierra durante el día.", // CIELO
-            "Nuestro planeta.", // TIERRA
-            "Lo que respiramos.", // AIRE
-            "Elemento que puede arder.", // FUEGO
-            "Esencial para la vida.", // AGUA
-            "Una fruta roja y jugosa.", // MANZANA
-            "Una fruta amarilla y alargada.", // PLATANO
-            "Pequeñas frutas verdes o moradas.", // UVA
-            "Una fruta cítrica de color naranja.", // NARANJA
-            "Una fruta cítrica amarilla.", // LIMON
-            "Una fruta pequeña y verde con semillas negras.", // KIWI
-            "Una fruta grande, verde por fuera y roja por dentro.", // SANDIA
-            "Pequeña fruta roja y dulce.", // FRESA
-            "Una fruta tropical con una cáscara dura y escamosa.", // PIÑA
-            "Una fruta jugosa con una piel aterciopelada.", // MELOCOTON
-            "Un objeto con páginas que se lee para aprender o entretenerse.", // LIBRO
-            "Hoja fina utilizada para escribir o imprimir.", // PAPEL
-            "Un instrumento para escribir o dibujar.", // LAPICERO
-            "Se utilizan para cortar papel o tela.", // TIJERAS
-            "Se utiliza para unir objetos.", // PEGAMENTO
-            "Un objeto elástico para borrar lápiz.", // GOMA
-            "Superficie en la que se puede escribir o dibujar con tiza.", // PIZARRA
-            "Persona que enseña a otros.", // MAESTRO
-            "Lugar donde se aprende y se educa.", // ESCUELA
-            "Persona que estudia en la escuela.", // ALUMNO
-            "Una persona con la que tienes una relación cercana.", // AMIGO
-            "El grupo de personas con la que tienes lazos familiares.", // FAMILIA
-            "Un progenitor masculino.", // PADRE
-            "Una progenitora femenina.", // MADRE
-            "Hijo de tus padres.", // HERMANO
-            "Hija de tus padres.", // HERMANA
-            "El padre de uno de tus padres.", // ABUELO
-            "La madre de uno de tus padres.", // ABUELA
-            "El hermano de uno de tus padres.", // TIO
-            "La hermana de uno de tus padres.", // TIA
-            "Alimento que se consume durante el día.", // COMIDA
-            "La última comida del día.", // CENA
-            "La primera comida del día.", // DESAYUNO
-            "Este dispositivo muestra programas y películas.", // TELEVISOR
-            "Se utiliza para ver imágenes en dispositivos electrónicos.", // PANTALLA
-            "Te protege del sol en la playa o en un día lluvioso.", // SOMBRILLA
-            "Proporciona aire fresco en días calurosos.", // VENTILADOR
-            "Utensilios de mesa que incluyen cuchillo, tenedor y cuchara.", // CUBIERTOS
-            "Te dice la hora en cualquier momento del día.", // RELOJ
-            "Te ayuda a realizar un seguimiento de fechas importantes y eventos.", // CALENDARIO
-            "La pantalla de una computadora o dispositivo similar.", // MONITOR
-            "Puedes hacer llamadas y enviar mensajes con este dispositivo.", // TELEFONO
-            "Una máquina que te permite realizar tareas digitales.", // COMPUTADORA
-            "Te muestra tu propio reflejo.", // ESPEJO
-            "Se usa para servir alimentos líquidos o para comer.", // CUCHARA
-            "Ayuda a comer alimentos sólidos y a pincharlos.", // TENEDOR
-            "Un utensilio afilado para cortar alimentos.", // CUCHILLO
-            "La usas para subir o bajar de un lugar elevado.")); // ESCALERA
-
-
 }
@@ -1,48 +1,448 @@
 package com.example.ahorcado.services;
 
-import lombok.Data;
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.utilidades.CardinalidadAproximada;
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import com.example.ahorcado.utilidades.ContadorAproximado;
+import com.example.ahorcado.utilidades.HistogramaLogaritmico;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
- * Clase que representa las Estadísticas Globales del juego
+ * Clase que representa las Estadísticas Globales del juego.
+ * Ocupa la misma memoria juegue quien juegue y cuanto juegue: las letras tienen un contador cada una, las palabras
+ * se cuentan de forma aproximada ({@link ContadorAproximado}) guardando solo las más frecuentes, las palabras y los
+ * jugadores distintos se estiman con {@link CardinalidadAproximada} y los intentos y la duración de las partidas
+ * se reparten en {@link HistogramaLogaritmico}. Las peticiones concurrentes no se bloquean ni pierden actualizaciones.
+ * Cada incremento se apunta también en la escritura diferida y al arrancar se recuperan los contadores guardados.
+ * Con el registro de eventos activo los resultados llegan de {@link ResultadosDiferidos}, fuera de las peticiones,
+ * y los contadores guardados hacen de instantánea del registro: guardan también hasta qué evento se han sumado.
  */
 @Service
-@Data
 public class GameStats {
-    private int partidasTerminadas;
-    private ArrayList<String> palabrasJugadas;
-    private ArrayList<String> palabrasAcertadas;
-    private ArrayList<String> palabrasFalladas;
-    private ArrayList<Character> letrasAcertadas;
-    private ArrayList<Character> letrasFalladas;
-
-    public GameStats() {
-        this.partidasTerminadas = 0;
-        this.palabrasJugadas = new ArrayList<>();
-        this.palabrasAcertadas = new ArrayList<>();
-        this.palabrasFalladas = new ArrayList<>();
-        this.letrasAcertadas = new ArrayList<>();
-        this.letrasFalladas = new ArrayList<>();
+    private static final int FILAS = 4; // Filas del contador de palabras, se pasa de su valor real con probabilidad 2%.
+    private static final int COLUMNAS = 1024; // Columnas del contador de palabras, se pasa como mucho un 0.3% del total.
+    private static final int PRECISION = 10; // 1024 registros para estimar los distintos, un 3% de error.
+    private static final int MAX_FRECUENTES = 10; // Palabras más frecuentes que se muestran de cada tipo.
+    private static final String PARTIDAS = "partidas";
+    private static final String LETRA_ACERTADA = "letraAcertada:";
+    private static final String LETRA_FALLADA = "letraFallada:";
+    private static final String JUGADORES = "jugadores:";
+    private static final String INTENTOS = "intentos:";
+    private static final String DURACION = "duracion:";
+    private static final String EVENTOS = "eventos:secuencia";
+
+    private final EscrituraDiferida escritura;
+    private final LongAdder partidasTerminadas = new LongAdder();
+    private final LongAdder resultados = new LongAdder(); // Resultados registrados en este servidor, cambian las tasas de acierto.
+    private final Contadores palabrasJugadas = new Contadores("jugada:");
+    private final Contadores palabrasAcertadas = new Contadores("acertada:");
+    private final Contadores palabrasFalladas = new Contadores("fallada:");
+    private final LongAdder[] letrasAcertadas = nuevosContadoresLetras();
+    private final LongAdder[] letrasFalladas = nuevosContadoresLetras();
+    private final CardinalidadAproximada jugadores = new CardinalidadAproximada(PRECISION);
+    private final HistogramaLogaritmico intentos = new HistogramaLogaritmico(); // Letras probadas por partida.
+    private final HistogramaLogaritmico duracion = new HistogramaLogaritmico(); // Milisegundos de cada partida.
+    private final AtomicLong secuenciaEventos = new AtomicLong(); // Último evento del registro cuyos resultados se han sumado.
+
+    public GameStats(EscrituraDiferida escritura) {
+        this.escritura = escritura;
+        escritura.cargarEstadisticas().forEach(this::restaurar);
+        for (Contadores contadores : new Contadores[]{palabrasJugadas, palabrasAcertadas, palabrasFalladas}) {
+            contadores.recortarFrecuentes();
+        }
     }
+
     public void nuevaPartida(String palabra) {
-        partidasTerminadas++;
-        palabrasJugadas.add(palabra);
+        partidasTerminadas.increment();
+        escritura.sumar(PARTIDAS);
+        palabrasJugadas.sumar(palabra);
+    }
+
+    /**
+     * Registra el resultado de una partida terminada: si acertó o falló la palabra y las letras acertadas y falladas.
+     * Cada partida solo se registra una vez aunque se llame varias veces.
+     *
+     * @param partida Partida terminada.
+     */
+    public void registrarFinal(Game partida) {
+        if (partida.marcarEstadisticasRegistradas()) registrarResultado(Resultado.de(partida));
+    }
+
+    /**
+     * Suma el resultado de una partida terminada.
+     *
+     * @param resultado Resultado de la partida.
+     */
+    public void registrarResultado(Resultado resultado) {
+        resultados.increment();
+
+        if (resultado.acertada()) palabrasAcertadas.sumar(resultado.palabra());
+        else palabrasFalladas.sumar(resultado.palabra());
+
+        sumarLetras(letrasAcertadas, LETRA_ACERTADA, new ConjuntoLetras(resultado.letrasAcertadas()));
+        sumarLetras(letrasFalladas, LETRA_FALLADA, new ConjuntoLetras(resultado.letrasFalladas()));
+        intentos.registrar(resultado.letrasProbadas(), (cubo, n) -> escritura.sumar(INTENTOS + cubo, n));
+        duracion.registrar(resultado.milisegundos(), (cubo, n) -> escritura.sumar(DURACION + cubo, n));
+    }
+
+    /**
+     * @return Secuencia del último evento del registro cuyos resultados se han sumado, 0 si ninguno.
+     */
+    public long getSecuenciaEventos() {
+        return secuenciaEventos.get();
     }
 
-    public void addAciertos(Set<Character> aciertosPartida) {
-        letrasAcertadas.addAll(aciertosPartida);
+    /**
+     * Apunta hasta qué evento del registro se han sumado los resultados. Se guarda en la escritura diferida junto
+     * a los contadores, así al arrancar se sigue leyendo el registro desde ahí.
+     *
+     * @param secuencia Secuencia del último evento leído.
+     */
+    public void avanzarEventos(long secuencia) {
+        long anterior = secuenciaEventos.getAndSet(secuencia);
+        if (secuencia != anterior) escritura.sumar(EVENTOS, secuencia - anterior);
     }
-    public void addFallos(Set<Character> letrasFalladas) {
-        this.letrasFalladas.addAll(letrasFalladas);
+
+    /**
+     * Apunta que el jugador ha empezado una partida, para estimar cuántos jugadores distintos hay.
+     *
+     * @param jugador Nombre del jugador.
+     */
+    public void registrarJugador(String jugador) {
+        jugadores.anadir(jugador, (registro, n) -> escritura.sumar(JUGADORES + registro, n));
     }
 
-    public void acertarPalabra(String palabra){palabrasAcertadas.add(palabra);}
+    public long getPartidasTerminadas() {
+        return partidasTerminadas.sum();
+    }
 
-    public void fallarPalabra(String palabra){palabrasFalladas.add(palabra);}
+    /**
+     * @return Número de resultados registrados desde que arrancó el servidor. Si no cambia, tampoco las veces
+     * que se ha acertado o fallado cada palabra.
+     */
+    public long getResultadosRegistrados() {
+        return resultados.sum();
+    }
 
+    /**
+     * @return Las palabras más jugadas con sus partidas aproximadas, de más a menos.
+     */
+    public Map<String, Long> getPalabrasJugadas() {
+        return palabrasJugadas.frecuentes();
+    }
 
-}
+    /**
+     * @return Las palabras más acertadas con sus aciertos aproximados, de más a menos.
+     */
+    public Map<String, Long> getPalabrasAcertadas() {
+        return palabrasAcertadas.frecuentes();
+    }
+
+    /**
+     * @return Las palabras más falladas con sus fallos aproximados, de más a menos.
+     */
+    public Map<String, Long> getPalabrasFalladas() {
+        return palabrasFalladas.frecuentes();
+    }
+
+    public Map<Character, Long> getLetrasAcertadas() {
+        return copiaLetras(letrasAcertadas);
+    }
+
+    public Map<Character, Long> getLetrasFalladas() {
+        return copiaLetras(letrasFalladas);
+    }
+
+    /**
+     * @param palabra Palabra a consultar.
+     * @return Veces aproximadas que se ha acertado la palabra, nunca menos de las reales.
+     */
+    public long vecesAcertada(String palabra) {
+        return palabrasAcertadas.boceto.estimar(palabra);
+    }
+
+    /**
+     * @param palabra Palabra a consultar.
+     * @return Veces aproximadas que se ha fallado la palabra, nunca menos de las reales.
+     */
+    public long vecesFallada(String palabra) {
+        return palabrasFalladas.boceto.estimar(palabra);
+    }
+
+    /**
+     * @return Número aproximado de palabras distintas jugadas.
+     */
+    public long numeroPalabrasJugadas() {
+        return palabrasJugadas.distintas.estimar();
+    }
+
+    /**
+     * @return Número aproximado de palabras distintas acertadas.
+     */
+    public long numeroPalabrasAcertadas() {
+        return palabrasAcertadas.distintas.estimar();
+    }
 
+    /**
+     * @return Número aproximado de palabras distintas falladas.
+     */
+    public long numeroPalabrasFalladas() {
+        return palabrasFalladas.distintas.estimar();
+    }
+
+    /**
+     * @return Número aproximado de jugadores distintos que han empezado una partida individual.
+     */
+    public long numeroJugadores() {
+        return jugadores.estimar();
+    }
+
+    /**
+     * Resume las estadísticas para el panel del administrador. Solo recorre estructuras de tamaño fijo,
+     * así que tarda lo mismo se hayan jugado las partidas que se hayan jugado.
+     *
+     * @return El resumen de las estadísticas.
+     */
+    public Resumen resumen() {
+        return new Resumen(getPartidasTerminadas(), numeroJugadores(), numeroPalabrasJugadas(),
+                getPalabrasAcertadas(), getPalabrasFalladas(), getLetrasAcertadas(), getLetrasFalladas(),
+                intentos.cuantil(0.5), intentos.cuantil(0.9),
+                duracion.cuantil(0.5) / 1000.0, duracion.cuantil(0.9) / 1000.0);
+    }
+
+    private static LongAdder[] nuevosContadoresLetras() {
+        LongAdder[] contadores = new LongAdder[ConjuntoLetras.ABECEDARIO.length()];
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+        return contadores;
+    }
+
+    private void sumarLetras(LongAdder[] contadores, String prefijo, ConjuntoLetras letras) {
+        for (int bits = letras.getBits(); bits != 0; bits &= bits - 1) {
+            int letra = Integer.numberOfTrailingZeros(bits);
+            contadores[letra].increment();
+            escritura.sumar(prefijo + ConjuntoLetras.ABECEDARIO.charAt(letra));
+        }
+    }
+
+    /**
+     * Suma al contador el valor guardado.
+     *
+     * @param clave Contador, con el prefijo de su tipo.
+     * @param valor Valor guardado.
+     */
+    private void restaurar(String clave, long valor) {
+        if (clave.equals(PARTIDAS)) {
+            partidasTerminadas.add(valor);
+        } else if (clave.startsWith(LETRA_ACERTADA) || clave.startsWith(LETRA_FALLADA)) {
+            int letra = ConjuntoLetras.indice(clave.charAt(clave.length() - 1));
+            if (letra >= 0) (clave.startsWith(LETRA_ACERTADA) ? letrasAcertadas : letrasFalladas)[letra].add(valor);
+        } else if (clave.startsWith(JUGADORES)) {
+            jugadores.restaurar(celda(clave, JUGADORES), valor);
+        } else if (clave.startsWith(INTENTOS)) {
+            intentos.restaurar(celda(clave, INTENTOS), valor);
+        } else if (clave.startsWith(DURACION)) {
+            duracion.restaurar(celda(clave, DURACION), valor);
+        } else if (clave.equals(EVENTOS)) {
+            secuenciaEventos.addAndGet(valor);
+        } else {
+            for (Contadores contadores : new Contadores[]{palabrasJugadas, palabrasAcertadas, palabrasFalladas}) {
+                contadores.restaurar(clave, valor);
+            }
+        }
+    }
+
+    private static int celda(String clave, String prefijo) {
+        try {
+            return Integer.parseInt(clave, prefijo.length(), clave.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<Character, Long> copiaLetras(LongAdder[] contadores) {
+        Map<Character, Long> copia = new TreeMap<>();
+        for (int i = 0; i < contadores.length; i++) {
+            long valor = contadores[i].sum();
+            if (valor > 0) copia.put(ConjuntoLetras.ABECEDARIO.charAt(i), valor);
+        }
+        return copia;
+    }
+
+    /**
+     * Contadores aproximados por palabra. Además del contador guarda las palabras más frecuentes: una palabra
+     * entra en ellas si su cuenta supera a la menor de las guardadas, que se sustituye. Las cuentas solo crecen,
+     * así que mientras no se supere ese umbral no hace falta bloquear nada.
+     * Se guardan en la escritura diferida las celdas del contador ("boceto:"), los registros de palabras distintas
+     * ("distintas:") y las palabras frecuentes ("frecuente:", 1 si está y 0 si salió). Los contadores por palabra
+     * de versiones anteriores (prefijo sin más) se suman al contador al arrancar.
+     */
+    private final class Contadores {
+        private final String prefijo; // Prefijo de los contadores en la escritura diferida.
+        private final ContadorAproximado boceto = new ContadorAproximado(FILAS, COLUMNAS);
+        private final CardinalidadAproximada distintas = new CardinalidadAproximada(PRECISION);
+        private final Set<String> frecuentes = ConcurrentHashMap.newKeySet();
+        private final Set<String> guardadas = new HashSet<>(); // Palabras frecuentes guardadas, solo al arrancar.
+        private volatile long umbral; // Menor cuenta de las palabras frecuentes cuando se calculó, solo crece.
+
+        private Contadores(String prefijo) {
+            this.prefijo = prefijo;
+        }
+
+        private void sumar(String palabra) {
+            boceto.sumar(palabra, 1, (celda, n) -> escritura.sumar("boceto:" + prefijo + celda, n));
+            distintas.anadir(palabra, (registro, n) -> escritura.sumar("distintas:" + prefijo + registro, n));
+            if (!frecuentes.contains(palabra) && (frecuentes.size() < MAX_FRECUENTES || boceto.estimar(palabra) > umbral)) {
+                entrarEnFrecuentes(palabra);
+            }
+        }
+
+        private synchronized void entrarEnFrecuentes(String palabra) {
+            if (frecuentes.contains(palabra)) return;
+            if (frecuentes.size() >= MAX_FRECUENTES) {
+                String menor = frecuentes.stream().min(Comparator.comparingLong(boceto::estimar)).orElseThrow();
+                if (boceto.estimar(menor) >= boceto.estimar(palabra)) {
+                    actualizarUmbral();
+                    return;
+                }
+                frecuentes.remove(menor);
+                escritura.sumar("frecuente:" + prefijo + menor, -1);
+            }
+            frecuentes.add(palabra);
+            escritura.sumar("frecuente:" + prefijo + palabra, 1);
+            actualizarUmbral();
+        }
+
+        private synchronized void actualizarUmbral() {
+            umbral = frecuentes.size() < MAX_FRECUENTES ? 0 : frecuentes.stream().mapToLong(boceto::estimar).min().orElse(0);
+        }
+
+        private void restaurar(String clave, long valor) {
+            if (clave.startsWith("boceto:" + prefijo)) {
+                boceto.restaurar(celda(clave, "boceto:" + prefijo), valor);
+            } else if (clave.startsWith("distintas:" + prefijo)) {
+                distintas.restaurar(celda(clave, "distintas:" + prefijo), valor);
+            } else if (clave.startsWith("frecuente:" + prefijo)) {
+                String palabra = clave.substring("frecuente:".length() + prefijo.length());
+                if (valor > 0 && guardadas.add(palabra)) frecuentes.add(palabra);
+            } else if (clave.startsWith(prefijo) && !clave.equals(prefijo + "otras")) {
+                String palabra = clave.substring(prefijo.length());
+                boceto.sumar(palabra, valor, null);
+                distintas.anadir(palabra, null);
+                frecuentes.add(palabra);
+            }
+        }
+
+        /**
+         * Tras recuperar los contadores deja solo las palabras más frecuentes y guarda cuáles son.
+         */
+        private synchronized void recortarFrecuentes() {
+            Set<String> mantener = frecuentes().keySet().stream().limit(MAX_FRECUENTES).collect(Collectors.toSet());
+            for (String palabra : Set.copyOf(frecuentes)) {
+                boolean guardada = guardadas.contains(palabra);
+                if (!mantener.contains(palabra)) {
+                    frecuentes.remove(palabra);
+                    if (guardada) escritura.sumar("frecuente:" + prefijo + palabra, -1);
+                } else if (!guardada) {
+                    escritura.sumar("frecuente:" + prefijo + palabra, 1);
+                }
+            }
+            guardadas.clear();
+            actualizarUmbral();
+        }
+
+        /**
+         * @return Las palabras frecuentes con su cuenta aproximada, de más a menos.
+         */
+        private Map<String, Long> frecuentes() {
+            Map<String, Long> copia = new LinkedHashMap<>();
+            frecuentes.stream()
+                    .map(palabra -> Map.entry(palabra, boceto.estimar(palabra)))
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(entrada -> copia.put(entrada.getKey(), entrada.getValue()));
+            return copia;
+        }
+    }
+
+    /**
+     * Resultado de una partida terminada, lo que se suma a las estadísticas. Se codifica como texto para guardarlo
+     * en el registro de eventos.
+     *
+     * @param palabra         Palabra de la partida.
+     * @param acertada        Si se descubrió la palabra.
+     * @param letrasAcertadas Máscara de las letras acertadas.
+     * @param letrasFalladas  Máscara de las letras falladas.
+     * @param letrasProbadas  Número de letras probadas.
+     * @param milisegundos    Duración de la partida.
+     */
+    public record Resultado(String palabra, boolean acertada, int letrasAcertadas, int letrasFalladas,
+                            int letrasProbadas, long milisegundos) {
+
+        /**
+         * @param partida Partida terminada.
+         * @return Su resultado, leído con el cerrojo de la partida.
+         */
+        public static Resultado de(Game partida) {
+            return partida.consultar(() -> new Resultado(partida.getPalabra(), partida.palabraDescubierta(),
+                    partida.getLetrasAcertadas().getBits(), partida.getLetrasFalladas().getBits(),
+                    partida.getLetrasProbadas().size(), partida.milisegundosJugados()));
+        }
+
+        /**
+         * @return El resultado como texto, con la palabra al final porque puede tener espacios.
+         */
+        public String codificar() {
+            return (acertada ? 1 : 0) + " " + letrasAcertadas + " " + letrasFalladas + " " + letrasProbadas + " "
+                    + milisegundos + " " + palabra;
+        }
+
+        /**
+         * @param texto Resultado codificado con {@link #codificar()}.
+         * @return El resultado, o vacío si el texto no es un resultado.
+         */
+        public static Optional<Resultado> decodificar(String texto) {
+            String[] partes = texto.split(" ", 6);
+            if (partes.length < 6) return Optional.empty();
+            try {
+                return Optional.of(new Resultado(partes[5], partes[0].equals("1"), Integer.parseInt(partes[1]),
+                        Integer.parseInt(partes[2]), Integer.parseInt(partes[3]), Long.parseLong(partes[4])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Resumen de las estadísticas para el panel del administrador.
+     *
+     * @param partidas             Partidas jugadas.
+     * @param jugadores            Jugadores distintos aproximados.
+     * @param palabrasDistintas    Palabras distintas jugadas aproximadas.
+     * @param masAcertadas         Palabras más acertadas con sus aciertos aproximados.
+     * @param masFalladas          Palabras más falladas con sus fallos aproximados.
+     * @param letrasAcertadas      Veces que se ha acertado cada letra.
+     * @param letrasFalladas       Veces que se ha fallado cada letra.
+     * @param intentosMediana      Mediana de letras probadas por partida.
+     * @param intentosP90          Percentil 90 de letras probadas por partida.
+     * @param segundosMediana      Mediana de la duración de las partidas, en segundos.
+     * @param segundosP90          Percentil 90 de la duración de las partidas, en segundos.
+     */
+    public record Resumen(long partidas, long jugadores, long palabrasDistintas,
+                          Map<String, Long> masAcertadas, Map<String, Long> masFalladas,
+                          Map<Character, Long> letrasAcertadas, Map<Character, Long> letrasFalladas,
+                          long intentosMediana, long intentosP90, double segundosMediana, double segundosP90) {
+    }
+}
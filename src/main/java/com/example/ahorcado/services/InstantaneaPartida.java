@@ -0,0 +1,34 @@
+package com.example.ahorcado.services;
+
+import java.io.Serializable;
+
+/**
+ * Copia del estado de una partida individual, es lo que se guarda para recuperarla tras reiniciar el servidor.
+ *
+ * @param palabra         Palabra a adivinar.
+ * @param pista           Pista de la palabra.
+ * @param palabraOculta   Palabra oculta con las posiciones ya descubiertas.
+ * @param letrasProbadas  Máscara de las letras probadas.
+ * @param letrasAcertadas Máscara de las letras acertadas.
+ * @param letrasFalladas  Máscara de las letras falladas.
+ * @param fallos          Número de fallos, incluidos los turnos agotados.
+ * @param estadisticasRegistradas Si el resultado ya se sumó a las estadísticas globales.
+ * @param clasificada     Si el resultado ya se sumó a la clasificación del jugador.
+ */
+public record InstantaneaPartida(String palabra, String pista, String palabraOculta, int letrasProbadas,
+                                 int letrasAcertadas, int letrasFalladas, int fallos,
+                                 boolean estadisticasRegistradas, boolean clasificada) implements Serializable {
+
+    /**
+     * Copia el estado actual de la partida con su cerrojo, para que todos los datos correspondan al mismo momento.
+     *
+     * @param partida Partida a copiar.
+     * @return La copia de la partida.
+     */
+    public static InstantaneaPartida de(Game partida) {
+        return partida.consultar(() -> new InstantaneaPartida(partida.getPalabra(), partida.getPista(),
+                partida.obtenerPalabraOculta(), partida.getLetrasProbadas().getBits(),
+                partida.getLetrasAcertadas().getBits(), partida.getLetrasFalladas().getBits(), partida.getFallos(),
+                partida.estadisticasRegistradas(), partida.clasificada()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ahorcado.services;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mazo barajado con las posiciones de las palabras candidatas del diccionario. Cada jugador tiene el suyo, así no repite
+ * palabra hasta haberlas jugado todas. Robar una palabra cuesta O(1) y al acabarse el mazo se vuelve a barajar.
+ * <p>
+ * El orden de cada vuelta sale de una semilla, así el mazo se puede guardar en unos pocos bytes ({@link Estado})
+ * y reconstruir en cualquier servidor.
+ */
+public class MazoPalabras implements Serializable {
+    private final int[] candidatas;
+    private final int[] indices;
+    private final long semilla;
+    private final int huella;
+    private int vuelta;
+    private int ultima; // Última palabra de la vuelta anterior
+    private int siguiente;
+
+    /**
+     * Crea un mazo barajado con las posiciones de las palabras candidatas.
+     *
+     * @param candidatas Posiciones de las palabras en el diccionario, no se modifican.
+     */
+    public MazoPalabras(int[] candidatas) {
+        this(candidatas, ThreadLocalRandom.current().nextLong(), 0, -1);
+    }
+
+    private MazoPalabras(int[] candidatas, long semilla, int vuelta, int ultima) {
+        this.candidatas = candidatas;
+        this.indices = new int[candidatas.length];
+        this.semilla = semilla;
+        this.huella = Arrays.hashCode(candidatas);
+        this.vuelta = vuelta;
+        this.ultima = ultima;
+        barajar();
+    }
+
+    /**
+     * Reconstruye un mazo guardado con {@link #estado()}.
+     *
+     * @param candidatas Posiciones de las palabras candidatas actuales.
+     * @param estado     Estado guardado del mazo.
+     * @return El mazo en el mismo punto en el que se guardó, o vacío si las candidatas han cambiado desde entonces.
+     */
+    public static Optional<MazoPalabras> restaurar(int[] candidatas, Estado estado) {
+        if (Arrays.hashCode(candidatas) != estado.huella() || estado.siguiente() < 0 || estado.siguiente() > candidatas.length) {
+            return Optional.empty();
+        }
+
+        MazoPalabras mazo = new MazoPalabras(candidatas, estado.semilla(), estado.vuelta(), estado.ultima());
+        mazo.siguiente = estado.siguiente();
+        return Optional.of(mazo);
+    }
+
+    /**
+     * Roba la siguiente palabra del mazo, si se ha acabado lo baraja de nuevo.
+     *
+     * @return Posición de la palabra en el diccionario.
+     */
+    public synchronized int robar() {
+        if (siguiente == indices.length) {
+            ultima = indices[indices.length - 1];
+            vuelta++;
+            barajar();
+        }
+        return indices[siguiente++];
+    }
+
+    /**
+     * @return El estado del mazo, para reconstruirlo con {@link #restaurar(int[], Estado)}.
+     */
+    public synchronized Estado estado() {
+        return new Estado(semilla, vuelta, ultima, siguiente, huella);
+    }
+
+    /**
+     * @param candidatas Posiciones de las palabras candidatas.
+     * @return true si el mazo se creó con esas mismas candidatas. Normalmente es la misma lista, pero un mazo
+     * recuperado de una sesión guardada tiene su propia copia y se compara el contenido.
+     */
+    public boolean esDe(int[] candidatas) {
+        return this.candidatas == candidatas || Arrays.equals(this.candidatas, candidatas);
+    }
+
+    /**
+     * Baraja las candidatas con el algoritmo de Fisher-Yates, con el orden que da la semilla a esta vuelta,
+     * y vuelve a empezar desde el principio.
+     */
+    private void barajar() {
+        SplittableRandom random = new SplittableRandom(semilla + vuelta);
+        System.arraycopy(candidatas, 0, indices, 0, indices.length);
+        for (int i = indices.length - 1; i > 0; i--) {
+            intercambiar(i, random.nextInt(i + 1));
+        }
+        // Evita que la última palabra de una vuelta sea también la primera de la siguiente
+        if (indices.length > 1 && indices[0] == ultima) intercambiar(0, 1 + random.nextInt(indices.length - 1));
+        siguiente = 0;
+    }
+
+    private void intercambiar(int i, int j) {
+        int aux = indices[i];
+        indices[i] = indices[j];
+        indices[j] = aux;
+    }
+
+    /**
+     * Estado de un mazo, suficiente para reconstruirlo.
+     *
+     * @param semilla   Semilla del orden de las vueltas.
+     * @param vuelta    Vueltas completas que se han dado al mazo.
+     * @param ultima    Última palabra de la vuelta anterior, -1 en la primera.
+     * @param siguiente Cuántas palabras se han robado en esta vuelta.
+     * @param huella    Hash de las candidatas, para descartar el estado si cambian.
+     */
+    public record Estado(long semilla, int vuelta, int ultima, int siguiente, int huella) {
+    }
+}
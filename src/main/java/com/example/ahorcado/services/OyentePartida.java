@@ -0,0 +1,26 @@
+package com.example.ahorcado.services;
+
+/**
+ * Recibe los cambios de una partida: intentos del jugador, turnos agotados y cambios de puntuación.
+ */
+@FunctionalInterface
+public interface OyentePartida {
+    /**
+     * Acciones que cambian el estado de una partida. La partida no notifica INICIO, lo registra quien la crea,
+     * ni RESULTADO, que registra quien suma la partida terminada a las estadísticas.
+     */
+    enum Accion {
+        INICIO, LETRA, PALABRA, TIEMPO, PUNTUACION, RESULTADO
+    }
+
+    /**
+     * Se llama después de que la acción haya cambiado la partida, en el hilo que la ha provocado y ya sin el cerrojo
+     * del estado de la partida. Los avisos de una misma partida llegan de uno en uno y en orden.
+     * No debe bloquear, ya que puede ser el hilo de la rueda de temporizadores.
+     *
+     * @param partida Partida que ha cambiado.
+     * @param accion  Acción que ha provocado el cambio.
+     * @param detalle Letra o palabra probada, o el marcador de la sala al puntuar. Null al agotarse el turno.
+     */
+    void cambio(Game partida, Accion accion, String detalle);
+}
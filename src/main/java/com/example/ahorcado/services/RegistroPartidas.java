@@ -0,0 +1,162 @@
+package com.example.ahorcado.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Registro concurrente de las partidas activas, indexadas por la clave de cada jugador (su sesión).
+ * Las búsquedas no bloquean y las escrituras solo bloquean la entrada afectada, por lo que muchos jugadores
+ * pueden jugar a la vez sin pisarse la partida. El registro tiene una capacidad máxima y elimina las partidas inactivas.
+ */
+@Service
+@Slf4j
+public class RegistroPartidas {
+    private static final int FRACCION_LOTE = 16; // Al llenarse el registro se libera esta fracción de su capacidad.
+
+    private final Map<String, Entrada> partidas = new ConcurrentHashMap<>();
+    private final int capacidad;
+    private final long inactividadMaxima;
+
+    public RegistroPartidas(@Value("${ahorcado.partidas.capacidad:10000}") int capacidad,
+                            @Value("${ahorcado.partidas.inactividad-minutos:30}") long inactividadMinutos) {
+        this.capacidad = capacidad;
+        this.inactividadMaxima = inactividadMinutos * 60_000;
+    }
+
+    /**
+     * Obtiene la partida del jugador, marcándola como usada.
+     *
+     * @param clave Clave del jugador.
+     * @return La partida del jugador o null si no tiene ninguna.
+     */
+    public Game obtener(String clave) {
+        Entrada entrada = partidas.get(clave);
+        if (entrada == null) return null;
+        entrada.tocar();
+        return entrada.partida;
+    }
+
+    /**
+     * Obtiene la partida del jugador y si no tiene ninguna le crea una nueva.
+     * La partida se crea sin bloquear el registro, ya que crearla puede leer de disco. Si dos peticiones del mismo
+     * jugador la crean a la vez se queda la primera en guardarse y la otra se descarta.
+     *
+     * @param clave   Clave del jugador.
+     * @param fabrica Crea la partida en caso de que el jugador no tenga.
+     * @return La partida del jugador.
+     */
+    public Game obtenerOCrear(String clave, Supplier<Game> fabrica) {
+        Game partida = obtener(clave);
+        if (partida != null) return partida;
+
+        Game nueva = fabrica.get();
+        asegurarCapacidad();
+        Entrada existente = partidas.putIfAbsent(clave, new Entrada(nueva));
+        if (existente == null) return nueva;
+
+        nueva.detenerTemporizador();
+        existente.tocar();
+        return existente.partida;
+    }
+
+    /**
+     * Guarda la partida del jugador, sustituyendo y deteniendo la que tuviera antes.
+     *
+     * @param clave   Clave del jugador.
+     * @param partida Nueva partida del jugador.
+     */
+    public void guardar(String clave, Game partida) {
+        if (!partidas.containsKey(clave)) asegurarCapacidad();
+
+        Entrada anterior = partidas.put(clave, new Entrada(partida));
+        if (anterior != null && anterior.partida != partida) anterior.partida.detenerTemporizador();
+    }
+
+    /**
+     * Elimina la partida del jugador y detiene su temporizador.
+     *
+     * @param clave Clave del jugador.
+     */
+    public void eliminar(String clave) {
+        Entrada entrada = partidas.remove(clave);
+        if (entrada != null) entrada.partida.detenerTemporizador();
+    }
+
+    /**
+     * @return Número de partidas activas en el registro.
+     */
+    public int tamano() {
+        return partidas.size();
+    }
+
+    /**
+     * Elimina periódicamente las partidas que llevan más tiempo del permitido sin usarse.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.partidas.purga-ms:60000}")
+    public void purgarInactivas() {
+        long limite = System.currentTimeMillis() - inactividadMaxima;
+        partidas.entrySet().removeIf(e -> {
+            if (e.getValue().ultimoAcceso >= limite) return false;
+            e.getValue().partida.detenerTemporizador();
+            return true;
+        });
+    }
+
+    /**
+     * Si el registro está lleno intenta liberar sitio, primero eliminando las partidas inactivas
+     * y si no es suficiente las que lleven más tiempo sin usarse. Se libera de una vez un lote de partidas,
+     * así recorrer el registro solo se hace una vez por lote y no en cada partida nueva.
+     * Solo libera sitio un hilo a la vez, los demás encuentran el registro ya con sitio.
+     */
+    private synchronized void asegurarCapacidad() {
+        if (partidas.size() < capacidad) return;
+
+        purgarInactivas();
+        if (partidas.size() < capacidad) return;
+        int sobran = partidas.size() - capacidad + Math.max(1, capacidad / FRACCION_LOTE);
+
+        // Montículo con las partidas menos usadas, la más reciente de ellas arriba
+        PriorityQueue<Candidata> antiguas = new PriorityQueue<>(sobran + 1,
+                Comparator.comparingLong(Candidata::ultimoAcceso).reversed());
+        for (Map.Entry<String, Entrada> e : partidas.entrySet()) {
+            antiguas.add(new Candidata(e.getKey(), e.getValue(), e.getValue().ultimoAcceso));
+            if (antiguas.size() > sobran) antiguas.poll();
+        }
+
+        log.warn("Registro de partidas lleno ({}), se descartan las {} partidas menos usadas", capacidad, antiguas.size());
+        for (Candidata candidata : antiguas) {
+            if (partidas.remove(candidata.clave(), candidata.entrada())) candidata.entrada().partida.detenerTemporizador();
+        }
+    }
+
+    /**
+     * Partida que se puede descartar, con su último uso al buscar las menos usadas.
+     */
+    private record Candidata(String clave, Entrada entrada, long ultimoAcceso) {
+    }
+
+    /**
+     * Partida guardada junto al momento de su último uso.
+     */
+    private static final class Entrada {
+        private final Game partida;
+        private volatile long ultimoAcceso;
+
+        private Entrada(Game partida) {
+            this.partida = partida;
+            this.ultimoAcceso = System.currentTimeMillis();
+        }
+
+        private void tocar() {
+            ultimoAcceso = System.currentTimeMillis();
+        }
+    }
+}
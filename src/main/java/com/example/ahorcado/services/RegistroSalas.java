@@ -0,0 +1,84 @@
+package com.example.ahorcado.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro concurrente de las salas de 2 jugadores, indexadas por su código. Cada sala tiene su propia puntuación
+ * y turno, así pueden jugarse muchas partidas de 2 jugadores a la vez. Las salas inactivas se eliminan.
+ */
+@Service
+@Slf4j
+public class RegistroSalas {
+    private static final String CARACTERES_CODIGO = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // Sin 0/O ni 1/I para que se lean bien
+    private static final int LONGITUD_CODIGO = 6;
+
+    private final Map<String, Sala> salas = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final long inactividadMaxima;
+
+    public RegistroSalas(@Value("${ahorcado.salas.inactividad-minutos:60}") long inactividadMinutos) {
+        this.inactividadMaxima = inactividadMinutos * 60_000;
+    }
+
+    /**
+     * Crea una sala vacía con un código nuevo.
+     *
+     * @return La sala creada.
+     */
+    public Sala crear() {
+        while (true) {
+            Sala sala = new Sala(nuevoCodigo());
+            if (salas.putIfAbsent(sala.getId(), sala) == null) return sala;
+        }
+    }
+
+    /**
+     * Obtiene la sala, marcándola como usada.
+     *
+     * @param codigo Código de la sala, sin distinguir mayúsculas.
+     * @return La sala o null si no existe.
+     */
+    public Sala obtener(String codigo) {
+        if (codigo == null) return null;
+        Sala sala = salas.get(codigo.trim().toUpperCase(Locale.ROOT));
+        if (sala != null) sala.tocar();
+        return sala;
+    }
+
+    /**
+     * @return Número de salas abiertas.
+     */
+    public int tamano() {
+        return salas.size();
+    }
+
+    /**
+     * Elimina periódicamente las salas que llevan más tiempo del permitido sin usarse.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.salas.purga-ms:60000}")
+    public void purgarInactivas() {
+        long limite = System.currentTimeMillis() - inactividadMaxima;
+        salas.values().removeIf(sala -> {
+            if (sala.getUltimoAcceso() >= limite) return false;
+            log.debug("Se cierra la sala inactiva {}", sala.getId());
+            sala.cerrar();
+            return true;
+        });
+    }
+
+    private String nuevoCodigo() {
+        char[] codigo = new char[LONGITUD_CODIGO];
+        for (int i = 0; i < codigo.length; i++) {
+            codigo[i] = CARACTERES_CODIGO.charAt(aleatorio.nextInt(CARACTERES_CODIGO.length()));
+        }
+        return new String(codigo);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.RegistroEventos;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Suma a las estadísticas los resultados de las partidas terminadas fuera de las peticiones. La petición solo añade
+ * al registro de eventos un evento RESULTADO, y una tarea programada lee el registro desde donde lo dejó y los suma.
+ * Las estadísticas guardan hasta qué evento se han sumado, así al arrancar solo se leen los eventos posteriores.
+ * Sin registro de eventos los resultados se suman en la propia petición.
+ */
+@Service
+public class ResultadosDiferidos {
+    private final RegistroEventos registroEventos;
+    private final GameStats estadisticas;
+    private final RegistroEventos.Cursor cursor; // Null sin registro de eventos.
+
+    public ResultadosDiferidos(RegistroEventos registroEventos, GameStats estadisticas) {
+        this.registroEventos = registroEventos;
+        this.estadisticas = estadisticas;
+        this.cursor = registroEventos.isActivo() ? registroEventos.cursor(estadisticas.getSecuenciaEventos()) : null;
+        sumar(); // Los resultados que quedaran sin sumar al parar
+    }
+
+    /**
+     * Registra el resultado de una partida terminada para sumarlo a las estadísticas.
+     * Cada partida solo se registra una vez aunque se llame varias veces.
+     *
+     * @param partida Partida terminada.
+     */
+    public void registrarFinal(Game partida) {
+        if (cursor == null) {
+            estadisticas.registrarFinal(partida);
+        } else if (partida.marcarEstadisticasRegistradas()) {
+            registroEventos.registrar(partida, OyentePartida.Accion.RESULTADO, GameStats.Resultado.de(partida).codificar());
+        }
+    }
+
+    /**
+     * Suma los resultados registrados desde la última vez. Las ejecuciones de la tarea nunca se solapan.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.eventos.estadisticas-ms:1000}")
+    public void sumar() {
+        if (cursor == null) return;
+
+        registroEventos.leer(cursor, evento -> {
+            if (evento.accion() == OyentePartida.Accion.RESULTADO) {
+                GameStats.Resultado.decodificar(evento.detalle()).ifPresent(estadisticas::registrarResultado);
+            }
+        });
+        estadisticas.avanzarEventos(cursor.getSecuencia());
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.ahorcado.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) compartida por todas las partidas.
+ * Un único hilo avanza la rueda cada tick y ejecuta los plazos vencidos, en lugar de tener un hilo por partida.
+ * Cada plazo es un nodo de una lista enlazada que se reutiliza, por lo que programarlo, reprogramarlo
+ * o cancelarlo cuesta O(1) y no crea objetos. Las ranuras se protegen con un {@link ReentrantLock}, así un hilo virtual
+ * que espera para programar un plazo libera su hilo del sistema.
+ * Las acciones se ejecutan por defecto en el hilo de la rueda; con {@link #setEjecutor} pueden ejecutarse en otros hilos.
+ * El hilo arranca con {@link #iniciar()} y termina con {@link #detener()}, al arrancar y parar la aplicación.
+ */
+@Component
+@Slf4j
+public final class RuedaTemporizadores {
+    private final long duracionTick; // Duración de cada tick en nanosegundos.
+    private final Plazo[] ranuras; // Cabeceras (centinelas) de la lista de plazos de cada ranura.
+    private final int mascara;
+    private final long origen; // Instante (nanoTime) del tick 0.
+    private final ReentrantLock cerrojo = new ReentrantLock(); // Protege las ranuras, los contadores y el hilo.
+    private long tickActual; // Último tick procesado.
+    private int pendientes; // Número de plazos programados.
+    private volatile Executor ejecutor; // Dónde se ejecutan las acciones de los plazos vencidos, null en el hilo de la rueda.
+    private volatile Thread hilo; // Hilo que hace avanzar la rueda, null si está parada.
+
+    /**
+     * Crea una rueda parada.
+     *
+     * @param tickMs   Duración de cada tick en milisegundos, es la precisión de los plazos.
+     * @param nRanuras Número de ranuras de la rueda, se redondea a la siguiente potencia de 2.
+     */
+    public RuedaTemporizadores(@Value("${ahorcado.temporizador.tick-ms:100}") long tickMs,
+                               @Value("${ahorcado.temporizador.ranuras:512}") int nRanuras) {
+        int tamano = Integer.highestOneBit(Math.max(1, nRanuras - 1)) << 1;
+        this.duracionTick = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.ranuras = new Plazo[tamano];
+        this.mascara = tamano - 1;
+        for (int i = 0; i < tamano; i++) {
+            Plazo centinela = new Plazo(null);
+            centinela.anterior = centinela;
+            centinela.siguiente = centinela;
+            ranuras[i] = centinela;
+        }
+        this.origen = System.nanoTime();
+    }
+
+    /**
+     * Arranca el hilo que hace avanzar la rueda. Los plazos programados antes vencen en cuanto arranca.
+     */
+    @PostConstruct
+    public void iniciar() {
+        cerrojo.lock();
+        try {
+            if (hilo != null) return;
+            hilo = new Thread(this::avanzar, "rueda-temporizadores");
+            hilo.setDaemon(true);
+            hilo.start();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Para el hilo de la rueda y espera a que termine la acción que esté ejecutando. Los plazos pendientes
+     * se quedan sin ejecutar.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        Thread parado;
+        cerrojo.lock();
+        try {
+            parado = hilo;
+            hilo = null;
+        } finally {
+            cerrojo.unlock();
+        }
+        if (parado == null) return;
+        LockSupport.unpark(parado);
+        parado.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Cambia dónde se ejecutan las acciones de los plazos vencidos, por ejemplo un hilo virtual por acción
+     * para que una acción lenta no retrase a las demás.
+     *
+     * @param ejecutor Ejecutor de las acciones.
+     */
+    public void setEjecutor(Executor ejecutor) {
+        this.ejecutor = ejecutor;
+    }
+
+    /**
+     * Programa el plazo para que venza dentro del tiempo indicado. Si ya estaba programado se reprograma.
+     *
+     * @param plazo     Plazo a programar.
+     * @param retrasoMs Milisegundos hasta que venza.
+     */
+    public void programar(Plazo plazo, long retrasoMs) {
+        long transcurrido = System.nanoTime() - origen + TimeUnit.MILLISECONDS.toNanos(retrasoMs);
+        cerrojo.lock();
+        try {
+            if (plazo.programado()) desenlazar(plazo);
+            else pendientes++;
+
+            long tick = Math.max(tickActual + 1, (transcurrido + duracionTick - 1) / duracionTick);
+            plazo.tickVencimiento = tick;
+            plazo.generacion++;
+
+            Plazo cabecera = ranuras[(int) (tick & mascara)];
+            plazo.anterior = cabecera.anterior;
+            plazo.siguiente = cabecera;
+            cabecera.anterior.siguiente = plazo;
+            cabecera.anterior = plazo;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Cancela el plazo si estaba programado.
+     *
+     * @param plazo Plazo a cancelar.
+     */
+    public void cancelar(Plazo plazo) {
+        cerrojo.lock();
+        try {
+            plazo.generacion++;
+            if (!plazo.programado()) return;
+            desenlazar(plazo);
+            pendientes--;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return Número de plazos programados pendientes de vencer.
+     */
+    public int pendientes() {
+        cerrojo.lock();
+        try {
+            return pendientes;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private void desenlazar(Plazo plazo) {
+        plazo.anterior.siguiente = plazo.siguiente;
+        plazo.siguiente.anterior = plazo.anterior;
+        plazo.anterior = null;
+        plazo.siguiente = null;
+    }
+
+    /**
+     * Bucle del hilo de la rueda hasta que se detiene: espera al siguiente tick, saca de la rueda los plazos vencidos
+     * y ejecuta sus acciones fuera del cerrojo para que puedan volver a programarse.
+     */
+    private void avanzar() {
+        while (hilo == Thread.currentThread()) {
+            long siguienteTick = origen + (tickActual + 1) * duracionTick;
+            long espera = siguienteTick - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+                continue;
+            }
+
+            Plazo vencidos = recogerVencidos((System.nanoTime() - origen) / duracionTick);
+            while (vencidos != null) {
+                Plazo plazo = vencidos;
+                vencidos = plazo.siguienteVencido;
+                plazo.siguienteVencido = null;
+                if (plazo.generacion != plazo.generacionVencida) continue; // Se reprogramó o canceló mientras tanto
+
+                Runnable accion = plazo.accion;
+                Executor otro = ejecutor;
+                if (otro == null) {
+                    ejecutar(accion);
+                } else {
+                    try {
+                        otro.execute(() -> ejecutar(accion));
+                    } catch (RejectedExecutionException e) {
+                        ejecutar(accion);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void ejecutar(Runnable accion) {
+        try {
+            accion.run();
+        } catch (RuntimeException e) {
+            log.error("Error ejecutando un plazo de la rueda de temporizadores", e);
+        }
+    }
+
+    /**
+     * Recorre las ranuras de los ticks transcurridos y desenlaza los plazos que ya han vencido.
+     *
+     * @param hastaTick Último tick a procesar.
+     * @return Cadena de plazos vencidos enlazados por {@code siguienteVencido}.
+     */
+    private Plazo recogerVencidos(long hastaTick) {
+        cerrojo.lock();
+        try {
+            Plazo vencidos = null;
+            long desde = tickActual + 1;
+            long ultimo = Math.min(hastaTick, desde + mascara); // Con una vuelta completa se ven todas las ranuras
+            for (long tick = desde; tick <= ultimo; tick++) {
+                Plazo cabecera = ranuras[(int) (tick & mascara)];
+                Plazo plazo = cabecera.siguiente;
+                while (plazo != cabecera) {
+                    Plazo siguiente = plazo.siguiente;
+                    if (plazo.tickVencimiento <= hastaTick) {
+                        desenlazar(plazo);
+                        pendientes--;
+                        plazo.generacionVencida = plazo.generacion;
+                        plazo.siguienteVencido = vencidos;
+                        vencidos = plazo;
+                    }
+                    plazo = siguiente;
+                }
+            }
+            tickActual = hastaTick;
+            return vencidos;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Plazo reutilizable de la rueda. Cada partida tiene el suyo y lo reprograma en cada turno.
+     */
+    public static final class Plazo {
+        private final Runnable accion;
+        private Plazo anterior;
+        private Plazo siguiente;
+        private Plazo siguienteVencido;
+        private long tickVencimiento;
+        private volatile long generacion;
+        private long generacionVencida;
+
+        /**
+         * @param accion Acción que se ejecuta cuando vence el plazo, en el hilo de la rueda salvo que tenga otro ejecutor.
+         */
+        public Plazo(Runnable accion) {
+            this.accion = accion;
+        }
+
+        private boolean programado() {
+            return siguiente != null;
+        }
+    }
+}
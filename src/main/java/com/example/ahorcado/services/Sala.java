@@ -0,0 +1,162 @@
+package com.example.ahorcado.services;
+
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Sala de una partida de 2 jugadores. Guarda su propia puntuación, el turno y la cola de palabras propuestas,
+ * así cada sala juega independiente de las demás. Los jugadores que se unen a la sala comparten la partida actual.
+ * El cerrojo de la sala es un {@link ReentrantLock}, así un hilo virtual que lo espera libera su hilo del sistema.
+ */
+public class Sala {
+    @Getter
+    private final String id;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Queue<Propuesta> propuestas = new ArrayDeque<>();
+    // Se cambian con el cerrojo de la sala y se leen sin él, así consultar el marcador nunca espera a una partida.
+    private volatile int puntosJugador1;
+    private volatile int puntosJugador2;
+    private volatile int turno = 1;
+    private Game partida; // Partida en juego o la última terminada, null si aún no se ha propuesto ninguna palabra.
+    private volatile long ultimoAcceso = System.currentTimeMillis();
+
+    public Sala(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Añade una palabra a la cola de la sala, se jugará cuando terminen las anteriores.
+     *
+     * @param palabra Palabra propuesta por el verdugo.
+     * @param pista   Pista de la palabra.
+     */
+    public void proponer(String palabra, String pista) {
+        cerrojo.lock();
+        try {
+            propuestas.add(new Propuesta(palabra, pista));
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return true si hay palabras esperando en la cola.
+     */
+    public boolean hayPropuestas() {
+        cerrojo.lock();
+        try {
+            return !propuestas.isEmpty();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Si la partida actual ha terminado (o no hay) empieza otra con la siguiente palabra de la cola.
+     * La partida terminada se puntúa antes de sustituirla.
+     *
+     * @param fabrica Crea la partida de la palabra propuesta.
+     * @return La partida actual de la sala, null si no hay ninguna.
+     */
+    public Game empezarSiguiente(Function<Propuesta, Game> fabrica) {
+        cerrojo.lock();
+        try {
+            if (partida != null && !terminada(partida)) return partida;
+            if (propuestas.isEmpty()) return partida;
+
+            if (partida != null) puntuar(partida);
+            partida = fabrica.apply(propuestas.poll());
+            return partida;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * @return La partida actual de la sala, null si aún no hay ninguna.
+     */
+    public Game getPartida() {
+        cerrojo.lock();
+        try {
+            return partida;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Si la partida ha terminado y aún no se había puntuado, añade un punto al jugador que adivinaba si descubrió
+     * la palabra y pasa al turno siguiente. Se puede llamar varias veces, cada partida solo cuenta una vez.
+     *
+     * @param partida Partida de la sala.
+     * @return true si la partida se ha puntuado ahora, false si no había terminado o ya estaba puntuada.
+     */
+    public boolean puntuar(Game partida) {
+        cerrojo.lock();
+        try {
+            if (!terminada(partida) || !partida.marcarPuntuada()) return false;
+
+            if (partida.palabraDescubierta()) {
+                if (turno % 2 == 0) {
+                    puntosJugador2++;
+                } else {
+                    puntosJugador1++;
+                }
+            }
+            turno++;
+            return true;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    public int getPuntosJugador1() {
+        return puntosJugador1;
+    }
+
+    public int getPuntosJugador2() {
+        return puntosJugador2;
+    }
+
+    public int getTurno() {
+        return turno;
+    }
+
+    /**
+     * Detiene la partida de la sala al cerrarla.
+     */
+    public void cerrar() {
+        cerrojo.lock();
+        try {
+            if (partida != null) partida.detenerTemporizador();
+            propuestas.clear();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    void tocar() {
+        ultimoAcceso = System.currentTimeMillis();
+    }
+
+    long getUltimoAcceso() {
+        return ultimoAcceso;
+    }
+
+    private static boolean terminada(Game partida) {
+        return partida.demasiadosFallos() || partida.palabraDescubierta();
+    }
+
+    /**
+     * Palabra propuesta por un jugador, esperando su turno en la cola de la sala.
+     *
+     * @param palabra Palabra a adivinar.
+     * @param pista   Pista de la palabra.
+     */
+    public record Propuesta(String palabra, String pista) {
+    }
+}
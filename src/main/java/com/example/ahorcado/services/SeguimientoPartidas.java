@@ -0,0 +1,65 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.metricas.MetricasJuego;
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.RegistroEventos;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Sigue los cambios de las partidas: los añade al registro de eventos, los publica en el canal de eventos de la partida
+ * y guarda la partida individual del jugador tras cada cambio. El oyente se ejecuta sin el cerrojo del estado de la
+ * partida, así escribir o publicar no detiene a quien la consulta, y recibe los cambios de cada partida de uno en uno.
+ */
+@Service
+public class SeguimientoPartidas {
+    private final RegistroEventos registroEventos;
+    private final CanalEventos eventos;
+    private final EscrituraDiferida escritura;
+    private final GameStats estadisticas;
+    private final MetricasJuego metricas;
+
+    public SeguimientoPartidas(RegistroEventos registroEventos, CanalEventos eventos, EscrituraDiferida escritura,
+                               GameStats estadisticas, MetricasJuego metricas) {
+        this.registroEventos = registroEventos;
+        this.eventos = eventos;
+        this.escritura = escritura;
+        this.estadisticas = estadisticas;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Empieza a seguir una partida nueva o recuperada: le pone el oyente, registra su inicio y, si es la partida
+     * individual de un jugador, la guarda.
+     *
+     * @param partida Partida a seguir.
+     * @param canal   Canal de eventos de la partida.
+     * @param jugador Jugador de la partida individual, null en partidas de sala.
+     * @return La misma partida
+     */
+    public Game seguir(Game partida, String canal, String jugador) {
+        partida.setOyente(oyente(canal, jugador));
+        metricas.getPartidasIniciadas().increment();
+        if (jugador != null) estadisticas.registrarJugador(jugador);
+        registroEventos.registrar(partida, OyentePartida.Accion.INICIO, null);
+        if (jugador != null) escritura.guardarPartida(jugador, InstantaneaPartida.de(partida));
+        return partida;
+    }
+
+    /**
+     * @param canal   Canal de eventos de la partida.
+     * @param jugador Jugador de la partida individual, null en partidas de sala.
+     * @return Oyente que publica los cambios de la partida, si hay algún navegador escuchando, los añade al registro
+     * de eventos y guarda la partida del jugador.
+     */
+    public OyentePartida oyente(String canal, String jugador) {
+        return (cambiada, accion, detalle) -> {
+            registroEventos.registrar(cambiada, accion, detalle);
+            if (eventos.tieneSuscriptores(canal)) {
+                eventos.publicar(canal, accion.name().toLowerCase(Locale.ROOT), EstadoPartida.de(cambiada));
+            }
+            if (jugador != null) escritura.guardarPartida(jugador, InstantaneaPartida.de(cambiada));
+        };
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Motor de selección de palabras. Clasifica el diccionario por dificultad, categoría y longitud y guarda
+ * precalculada la lista de candidatas de cada combinación, así elegir palabra para una partida no recorre el diccionario.
+ * <p>
+ * La dificultad es la indicada en el corpus o, si no la tiene, se calcula a partir de la entropía de sus letras
+ * y de la tasa de acierto de la palabra en las estadísticas, repartiendo el diccionario en tres tercios.
+ * El índice se reconstruye periódicamente para tener en cuenta las recargas del diccionario y las nuevas estadísticas.
+ * Las listas que no cambian al reconstruirlo se mantienen, así los mazos de los jugadores creados con ellas siguen valiendo.
+ */
+@Service
+@Slf4j
+public class SelectorPalabras {
+    private static final Dificultad[] DIFICULTADES = Dificultad.values();
+
+    private final Diccionario diccionario;
+    private final GameStats estadisticas;
+    private volatile Indice indice;
+    private byte[] libres; // Array de dificultades que ya no usa el índice, se reutiliza en la siguiente reconstrucción.
+
+    public SelectorPalabras(Diccionario diccionario, GameStats estadisticas) {
+        this.diccionario = diccionario;
+        this.estadisticas = estadisticas;
+        reindexar();
+    }
+
+    /**
+     * Obtiene las palabras candidatas que cumplen el criterio. Si ninguna lo cumple devuelve todas las del diccionario.
+     *
+     * @param criterio Filtros a aplicar, los nulos no filtran.
+     * @return El corpus y las posiciones de las candidatas dentro de él.
+     */
+    public Seleccion candidatas(Criterio criterio) {
+        Indice actual = indice;
+        int[] cubo = actual.cubos.get(criterio);
+        if (cubo == null) cubo = actual.cubos.get(Criterio.TODAS);
+        return new Seleccion(actual.corpus, cubo);
+    }
+
+    /**
+     * @return Las categorías del diccionario ordenadas alfabéticamente.
+     */
+    public List<String> categorias() {
+        return indice.categorias;
+    }
+
+    /**
+     * Vuelve a clasificar el diccionario con el corpus y las estadísticas actuales. Si es el mismo corpus y no ha
+     * terminado ninguna partida desde la última vez no hace nada, y si ninguna palabra cambia de dificultad mantiene
+     * el índice. Solo se reconstruyen las listas de las dificultades que han ganado o perdido palabras.
+     */
+    @Scheduled(fixedDelayString = "${ahorcado.selector.reindexar-ms:60000}", initialDelayString = "${ahorcado.selector.reindexar-ms:60000}")
+    public synchronized void reindexar() {
+        Corpus corpus = diccionario.actual();
+        long resultados = estadisticas.getResultadosRegistrados();
+        Indice anterior = indice;
+        boolean mismoCorpus = anterior != null && anterior.corpus == corpus;
+        if (mismoCorpus && anterior.resultados == resultados) return;
+
+        int n = corpus.tamano();
+        byte[] dificultades = clasificar(corpus, mismoCorpus ? libres : null);
+
+        // Dificultades cuyas listas cambian, con otro corpus todas
+        EnumSet<Dificultad> cambiadas = mismoCorpus ? EnumSet.noneOf(Dificultad.class) : EnumSet.allOf(Dificultad.class);
+        for (int i = 0; mismoCorpus && i < n; i++) {
+            if (dificultades[i] == anterior.dificultades[i]) continue;
+            cambiadas.add(DIFICULTADES[dificultades[i]]);
+            cambiadas.add(DIFICULTADES[anterior.dificultades[i]]);
+        }
+        if (cambiadas.isEmpty()) {
+            libres = dificultades;
+            indice = new Indice(corpus, anterior.cubos, anterior.categorias, anterior.dificultades, resultados);
+            return;
+        }
+
+        Map<Criterio, ListaPosiciones> listas = new HashMap<>();
+        SortedSet<String> categorias = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            Dificultad dificultad = DIFICULTADES[dificultades[i]];
+            String categoria = corpus.categoria(i);
+            if (!categoria.isEmpty()) categorias.add(categoria);
+            // Con el mismo corpus las listas sin dificultad no cambian, ni las de las dificultades que no cambian
+            if (mismoCorpus && !cambiadas.contains(dificultad)) continue;
+            Longitud longitud = Longitud.de(corpus.palabra(i));
+
+            // Cada palabra entra en todas las combinaciones de sus valores con "cualquiera"
+            for (Dificultad d : mismoCorpus ? new Dificultad[]{dificultad} : new Dificultad[]{dificultad, null}) {
+                for (String c : categoria.isEmpty() ? new String[]{null} : new String[]{categoria, null}) {
+                    for (Longitud l : new Longitud[]{longitud, null}) {
+                        listas.computeIfAbsent(new Criterio(d, c, l), k -> new ListaPosiciones()).anadir(i);
+                    }
+                }
+            }
+        }
+
+        // Si una lista no ha cambiado se reutiliza la anterior, los mazos la reconocen por su referencia
+        Map<Criterio, int[]> cubos = new HashMap<>();
+        if (mismoCorpus) {
+            cubos.putAll(anterior.cubos);
+            cubos.keySet().removeIf(criterio -> cambiadas.contains(criterio.dificultad()));
+        }
+        listas.forEach((criterio, lista) -> {
+            int[] cubo = lista.aArray();
+            int[] previo = mismoCorpus ? anterior.cubos.get(criterio) : null;
+            cubos.put(criterio, Arrays.equals(previo, cubo) ? previo : cubo);
+        });
+        cubos.putIfAbsent(Criterio.TODAS, new int[0]);
+        libres = mismoCorpus ? anterior.dificultades : null;
+        indice = new Indice(corpus, Map.copyOf(cubos), List.copyOf(categorias), dificultades, resultados);
+        log.debug("Índice de palabras reconstruido: {} palabras, dificultades {} cambiadas", n, cambiadas);
+    }
+
+    /**
+     * Calcula la dificultad de cada palabra del corpus: la indicada en el corpus o, si no la tiene, la del tercio
+     * en el que queda su puntuación.
+     *
+     * @param corpus  Corpus a clasificar.
+     * @param destino Array donde dejar el resultado si es del tamaño del corpus, para no crear otro.
+     * @return El ordinal de la dificultad de cada palabra.
+     */
+    private byte[] clasificar(Corpus corpus, byte[] destino) {
+        int n = corpus.tamano();
+
+        // Puntuación de cada palabra, las de dificultad indicada en el corpus no se puntúan
+        double[] puntuaciones = new double[n];
+        int puntuadas = 0;
+        for (int i = 0; i < n; i++) {
+            if (corpus.dificultad(i) != Corpus.SIN_DIFICULTAD) continue;
+            String palabra = corpus.palabra(i);
+            long acertada = estadisticas.vecesAcertada(palabra);
+            long fallada = estadisticas.vecesFallada(palabra);
+            double tasaAcierto = (acertada + 1.0) / (acertada + fallada + 2.0); // Sin partidas se supone 0.5
+            puntuaciones[i] = entropia(palabra) + 2 * (1 - tasaAcierto);
+            puntuadas++;
+        }
+
+        // Los tercios se separan por la puntuación que queda en la posición 1/3 y 2/3 de las ordenadas
+        double[] ordenadas = new double[puntuadas];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (corpus.dificultad(i) == Corpus.SIN_DIFICULTAD) ordenadas[j++] = puntuaciones[i];
+        }
+        Arrays.sort(ordenadas);
+        double media = umbral(ordenadas, (puntuadas + 2) / 3);
+        double dificil = umbral(ordenadas, (2 * puntuadas + 2) / 3);
+
+        byte[] dificultades = destino != null && destino.length == n ? destino : new byte[n];
+        for (int i = 0; i < n; i++) {
+            Dificultad dificultad;
+            if (corpus.dificultad(i) != Corpus.SIN_DIFICULTAD) dificultad = DIFICULTADES[corpus.dificultad(i) - 1];
+            else if (puntuaciones[i] < media) dificultad = Dificultad.FACIL;
+            else dificultad = puntuaciones[i] < dificil ? Dificultad.MEDIA : Dificultad.DIFICIL;
+            dificultades[i] = (byte) dificultad.ordinal();
+        }
+        return dificultades;
+    }
+
+    /**
+     * @return La puntuación de la posición indicada, o infinito si no hay tantas y nadie llega a ese tercio.
+     */
+    private static double umbral(double[] ordenadas, int posicion) {
+        return posicion < ordenadas.length ? ordenadas[posicion] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Entropía de Shannon, en bits, de la distribución de letras de la palabra.
+     * Cuantas más letras distintas tiene la palabra y más repartidas están, más alta es.
+     */
+    private static double entropia(String palabra) {
+        int[] apariciones = new int[ConjuntoLetras.ABECEDARIO.length()];
+        int total = 0;
+        for (int i = 0; i < palabra.length(); i++) {
+            int letra = ConjuntoLetras.indice(palabra.charAt(i));
+            if (letra < 0) continue;
+            apariciones[letra]++;
+            total++;
+        }
+
+        double entropia = 0;
+        for (int veces : apariciones) {
+            if (veces == 0) continue;
+            double p = (double) veces / total;
+            entropia -= p * Math.log(p) / Math.log(2);
+        }
+        return entropia;
+    }
+
+    /**
+     * Dificultad de una palabra.
+     */
+    public enum Dificultad {
+        FACIL, MEDIA, DIFICIL
+    }
+
+    /**
+     * Rango de longitud de una palabra.
+     */
+    public enum Longitud {
+        CORTA, // Hasta 5 letras
+        MEDIA, // 6 o 7 letras
+        LARGA; // 8 letras o más
+
+        static Longitud de(String palabra) {
+            if (palabra.length() <= 5) return CORTA;
+            if (palabra.length() <= 7) return MEDIA;
+            return LARGA;
+        }
+    }
+
+    /**
+     * Filtros para elegir palabra, los valores nulos aceptan cualquier palabra.
+     *
+     * @param dificultad Dificultad de la palabra.
+     * @param categoria  Categoría de la palabra, en minúsculas.
+     * @param longitud   Rango de longitud de la palabra.
+     */
+    public record Criterio(Dificultad dificultad, String categoria, Longitud longitud) implements Serializable {
+        public static final Criterio TODAS = new Criterio(null, null, null);
+    }
+
+    /**
+     * Palabras candidatas para una partida.
+     *
+     * @param corpus  Corpus al que pertenecen las posiciones.
+     * @param indices Posiciones de las candidatas en el corpus. No se debe modificar.
+     */
+    public record Seleccion(Corpus corpus, int[] indices) {
+    }
+
+    /**
+     * @param dificultades Ordinal de la dificultad de cada palabra del corpus.
+     * @param resultados   Resultados registrados en las estadísticas cuando se calcularon las dificultades.
+     */
+    private record Indice(Corpus corpus, Map<Criterio, int[]> cubos, List<String> categorias, byte[] dificultades,
+                          long resultados) {
+    }
+
+    /**
+     * Lista de posiciones que crece sin envolver cada una en un Integer.
+     */
+    private static final class ListaPosiciones {
+        private int[] posiciones = new int[16];
+        private int tamano;
+
+        private void anadir(int posicion) {
+            if (tamano == posiciones.length) posiciones = Arrays.copyOf(posiciones, tamano * 2);
+            posiciones[tamano++] = posicion;
+        }
+
+        private int[] aArray() {
+            return Arrays.copyOf(posiciones, tamano);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ahorcado.utilidades;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estima cuántos textos distintos se han visto en memoria fija (HyperLogLog). La huella de cada texto elige
+ * un registro y en él se guarda el mayor número de ceros iniciales visto en el resto de la huella; cuantos
+ * más textos distintos, más largas las rachas de ceros. Con 2^precision registros el error típico
+ * es 1.04 / sqrt(2^precision), un 3% con precisión 10.
+ */
+public class CardinalidadAproximada {
+    private final int precision;
+    private final AtomicIntegerArray registros;
+
+    /**
+     * @param precision Bits de la huella que eligen el registro, entre 4 y 16.
+     */
+    public CardinalidadAproximada(int precision) {
+        if (precision < 4 || precision > 16) throw new IllegalArgumentException("Precisión fuera de rango: " + precision);
+        this.precision = precision;
+        this.registros = new AtomicIntegerArray(1 << precision);
+    }
+
+    /**
+     * Añade un texto. Los registros solo crecen, así que el incremento de cada uno es su valor nuevo menos el anterior.
+     *
+     * @param texto  Texto visto.
+     * @param oyente Recibe el incremento del registro si cambia, puede ser null.
+     */
+    public void anadir(CharSequence texto, OyenteCeldas oyente) {
+        long huella = Huella.de(texto);
+        int registro = (int) (huella >>> (64 - precision));
+        // El bit final limita la racha a los bits que quedan tras el registro
+        int rango = Long.numberOfLeadingZeros((huella << precision) | (1L << (precision - 1))) + 1;
+
+        int actual;
+        while ((actual = registros.get(registro)) < rango) {
+            if (registros.compareAndSet(registro, actual, rango)) {
+                if (oyente != null) oyente.sumar(registro, rango - actual);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Número estimado de textos distintos.
+     */
+    public long estimar() {
+        int m = registros.length();
+        double suma = 0;
+        int vacios = 0;
+        for (int i = 0; i < m; i++) {
+            int valor = registros.get(i);
+            suma += 1.0 / (1L << valor);
+            if (valor == 0) vacios++;
+        }
+        double estimacion = 0.7213 / (1 + 1.079 / m) * m * m / suma;
+
+        // Con pocos textos es más precisa la proporción de registros vacíos
+        if (estimacion <= 2.5 * m && vacios > 0) estimacion = m * Math.log((double) m / vacios);
+        return Math.round(estimacion);
+    }
+
+    /**
+     * Recupera el valor guardado de un registro.
+     *
+     * @param registro Registro recibido por el oyente.
+     * @param valor    Suma de sus incrementos.
+     */
+    public void restaurar(int registro, long valor) {
+        if (registro >= 0 && registro < registros.length()) registros.accumulateAndGet(registro, (int) valor, Math::max);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.ahorcado.utilidades;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Conjunto de letras del abecedario (A-Z y Ñ) guardado como una máscara de bits, una por letra.
+ * Los métodos con char no crean objetos; además se puede usar como un {@code Set<Character>} desde las plantillas.
+ * Las letras que no pertenecen al abecedario se ignoran.
+ */
+public class ConjuntoLetras extends AbstractSet<Character> {
+    /**
+     * Letras del abecedario en el orden del teclado, la Ñ va detrás de la N.
+     */
+    public static final String ABECEDARIO = "ABCDEFGHIJKLMNÑOPQRSTUVWXYZ";
+
+    private int bits;
+
+    public ConjuntoLetras() {
+        this(0);
+    }
+
+    /**
+     * @param bits Máscara con un bit por cada letra, en el orden de {@link #ABECEDARIO}.
+     */
+    public ConjuntoLetras(int bits) {
+        this.bits = bits & ((1 << ABECEDARIO.length()) - 1);
+    }
+
+    /**
+     * Obtiene la posición de la letra en el abecedario, sin distinguir mayúsculas y minúsculas.
+     *
+     * @param letra La letra a buscar.
+     * @return La posición de la letra o -1 si no pertenece al abecedario.
+     */
+    public static int indice(char letra) {
+        char mayuscula = Character.toUpperCase(letra);
+        if (mayuscula >= 'A' && mayuscula <= 'N') return mayuscula - 'A';
+        if (mayuscula == 'Ñ') return 'N' - 'A' + 1;
+        if (mayuscula >= 'O' && mayuscula <= 'Z') return mayuscula - 'A' + 1;
+        return -1;
+    }
+
+    /**
+     * @param letra La letra a comprobar.
+     * @return true si la letra está en el conjunto.
+     */
+    public boolean contiene(char letra) {
+        int i = indice(letra);
+        return i >= 0 && (bits & (1 << i)) != 0;
+    }
+
+    /**
+     * Añade la letra al conjunto.
+     *
+     * @param letra La letra a añadir.
+     * @return true si la letra no estaba en el conjunto, false si ya estaba o no pertenece al abecedario.
+     */
+    public boolean anadir(char letra) {
+        int i = indice(letra);
+        if (i < 0 || (bits & (1 << i)) != 0) return false;
+        bits |= 1 << i;
+        return true;
+    }
+
+    /**
+     * @return La máscara con un bit por cada letra del conjunto.
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Character letra && contiene(letra);
+    }
+
+    @Override
+    public boolean add(Character letra) {
+        return anadir(letra);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        bits &= ~(1 << indice((Character) o));
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        bits = 0;
+    }
+
+    @Override
+    public int size() {
+        return Integer.bitCount(bits);
+    }
+
+    @Override
+    public Iterator<Character> iterator() {
+        return new Iterator<>() {
+            private int restantes = bits;
+            private int ultimo = -1;
+
+            @Override
+            public boolean hasNext() {
+                return restantes != 0;
+            }
+
+            @Override
+            public Character next() {
+                if (restantes == 0) throw new NoSuchElementException();
+                ultimo = Integer.numberOfTrailingZeros(restantes);
+                restantes &= restantes - 1;
+                return ABECEDARIO.charAt(ultimo);
+            }
+
+            @Override
+            public void remove() {
+                if (ultimo < 0) throw new IllegalStateException();
+                bits &= ~(1 << ultimo);
+                ultimo = -1;
+            }
+        };
+    }
+}
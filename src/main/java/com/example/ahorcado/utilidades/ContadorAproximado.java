@@ -0,0 +1,75 @@
+package com.example.ahorcado.utilidades;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cuenta cuántas veces aparece cada texto en memoria fija (Count-Min sketch): una tabla de filas x columnas
+ * contadores donde cada texto suma en una columna de cada fila, elegida con una huella distinta por fila.
+ * Varias palabras pueden compartir columna, así que la estimación es el mínimo de sus contadores: nunca
+ * se queda corta y se pasa como mucho en e/columnas del total con probabilidad 1 - e^-filas.
+ */
+public class ContadorAproximado {
+    private final int filas;
+    private final int columnas;
+    private final AtomicLongArray celdas;
+
+    /**
+     * @param filas    Número de filas, cada una reduce la probabilidad de pasarse.
+     * @param columnas Número de columnas, potencia de 2. Cuantas más, menor el error.
+     */
+    public ContadorAproximado(int filas, int columnas) {
+        if (Integer.bitCount(columnas) != 1) throw new IllegalArgumentException("Las columnas deben ser potencia de 2: " + columnas);
+        this.filas = filas;
+        this.columnas = columnas;
+        this.celdas = new AtomicLongArray(filas * columnas);
+    }
+
+    /**
+     * Suma una cantidad al texto.
+     *
+     * @param texto    Texto a contar.
+     * @param cantidad Cantidad a sumar.
+     * @param oyente   Recibe el incremento de cada celda, puede ser null.
+     */
+    public void sumar(CharSequence texto, long cantidad, OyenteCeldas oyente) {
+        long huella = Huella.de(texto);
+        for (int fila = 0; fila < filas; fila++) {
+            int celda = celda(huella, fila);
+            celdas.addAndGet(celda, cantidad);
+            if (oyente != null) oyente.sumar(celda, cantidad);
+        }
+    }
+
+    /**
+     * @param texto Texto a consultar.
+     * @return Veces estimadas que se ha contado el texto, nunca menos de las reales.
+     */
+    public long estimar(CharSequence texto) {
+        long huella = Huella.de(texto);
+        long minimo = Long.MAX_VALUE;
+        for (int fila = 0; fila < filas; fila++) {
+            minimo = Math.min(minimo, celdas.get(celda(huella, fila)));
+        }
+        return minimo;
+    }
+
+    /**
+     * Suma a una celda su valor guardado.
+     *
+     * @param celda Celda recibida por el oyente.
+     * @param valor Suma de sus incrementos.
+     */
+    public void restaurar(int celda, long valor) {
+        if (celda >= 0 && celda < celdas.length()) celdas.addAndGet(celda, valor);
+    }
+
+    /**
+     * La columna de cada fila sale de combinar las dos mitades de la huella (h1 + fila * h2),
+     * así basta con calcular una huella por texto.
+     */
+    private int celda(long huella, int fila) {
+        int h1 = (int) huella;
+        int h2 = (int) (huella >>> 32);
+        return fila * columnas + ((h1 + fila * h2) & (columnas - 1));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ahorcado.utilidades;
+
+/**
+ * Huella de 64 bits de un texto para los resúmenes aproximados. A diferencia de {@link String#hashCode()}
+ * todos sus bits están bien repartidos, así se pueden usar por separado.
+ */
+final class Huella {
+
+    private Huella() {
+    }
+
+    /**
+     * FNV-1a sobre los caracteres seguido del mezclado final de MurmurHash3.
+     *
+     * @param texto Texto del que calcular la huella.
+     * @return La huella del texto.
+     */
+    static long de(CharSequence texto) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
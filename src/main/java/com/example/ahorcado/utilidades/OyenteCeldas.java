@@ -0,0 +1,16 @@
+package com.example.ahorcado.utilidades;
+
+/**
+ * Recibe los incrementos de las celdas de un resumen aproximado ({@link ContadorAproximado},
+ * {@link CardinalidadAproximada} o {@link HistogramaLogaritmico}) para guardarlos como contadores.
+ * Sumando todos los incrementos de una celda se obtiene su valor, que se recupera con {@code restaurar}.
+ */
+@FunctionalInterface
+public interface OyenteCeldas {
+
+    /**
+     * @param celda      Celda que ha cambiado.
+     * @param incremento Cantidad que se le ha sumado.
+     */
+    void sumar(int celda, long incremento);
+}
@@ -1,6 +1,7 @@
 package com.example.ahorcado.utilidades;
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
@@ -19,4 +20,49 @@ public class Utilidades {
         cookie.setPath("/");
         response.addCookie(cookie);
     }
+
+    /**
+     * Genera la cookie "partida" con el token firmado de la partida, o la borra si el token es null.
+     * Solo la lee el servidor, por lo que no es accesible desde JavaScript.
+     *
+     * @param token    Token de la partida, null para borrar la cookie.
+     * @param response El objeto HttpServletResponse utilizado para agregar la cookie a la respuesta.
+     */
+    public static void generarCookiePartida(String token, HttpServletResponse response) {
+        generarCookieToken("partida", token, response);
+    }
+
+    /**
+     * Genera la cookie "mazo" con el token firmado del criterio de palabra y el mazo del jugador.
+     *
+     * @param token    Token del mazo.
+     * @param response El objeto HttpServletResponse utilizado para agregar la cookie a la respuesta.
+     */
+    public static void generarCookieMazo(String token, HttpServletResponse response) {
+        generarCookieToken("mazo", token, response);
+    }
+
+    private static void generarCookieToken(String nombre, String token, HttpServletResponse response) {
+        Cookie cookie = new Cookie(nombre, token == null ? "" : token);
+        cookie.setMaxAge(token == null ? 0 : 120 * 60);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+    }
+
+    /**
+     * Obtiene el valor de una cookie de la petición.
+     *
+     * @param request La petición HTTP.
+     * @param nombre  Nombre de la cookie.
+     * @return El valor de la cookie o null si no viene en la petición.
+     */
+    public static String leerCookie(HttpServletRequest request, String nombre) {
+        if (request.getCookies() == null) return null;
+        for (Cookie cookie : request.getCookies()) {
+            if (cookie.getName().equals(nombre)) return cookie.getValue();
+        }
+        return null;
+    }
 }
@@ -6,51 +6,79 @@ $(document).ready(() => {
         const boton = $(this);
         const letra = boton.text().charAt(0);
 
-        // Realiza una solicitud AJAX al servidor para adivinar la letra.
-        $.ajax({
-            type: "get",
-            url: "/adivinar/" + letra,
-            success: function(data) {
-                // Cuando se recibe una respuesta exitosa desde el servidor:
-
-                // Actualiza el contenido del elemento con id "palabra" con la respuesta del servidor.
-                $("#palabra").html(data);
-
-                // Remueve la clase "tecla" del botón y agrega la clase "letra-oculta".
-                boton.removeClass("tecla");
-                boton.addClass("letra-oculta");
-
-                // Recarga la página para actualizar la imagen del ahorcado.
-                location.reload();
-            }
-        });
+        // Oculta la tecla al momento para que no se pueda pulsar dos veces.
+        boton.removeClass("tecla");
+        boton.addClass("letra-oculta");
+
+        // Prueba la letra en el servidor, que responde con el estado de la partida en JSON.
+        $.getJSON("/api/adivinar/" + letra, actualizarPartida);
     });
 
+    // Rutas de las imágenes por número de fallos, llevan la huella de su contenido y el navegador las guarda.
+    const imagenes = ($("#imagen").data("imagenes") || "").split(",");
+
+    function mostrarImagen(fallos) {
+        if (imagenes[fallos]) document.getElementById("imagen").src = imagenes[fallos];
+    }
+
     // Obtiene el valor de la cookie llamada "fallos" y verifica si existe.
     const fallosCookie = document.cookie.replace(/(?:^|.*;\s*)fallos\s*=\s*([^;]*).*$|^.*$/, "$1");
 
     if (fallosCookie) {
-        // Si la cookie "fallos" existe, actualiza la fuente de la imagen con el número de fallos.
-        document.getElementById("imagen").src = "/img/" + fallosCookie + ".jpg";
+        // Si la cookie "fallos" existe, actualiza la imagen con el número de fallos.
+        mostrarImagen(fallosCookie);
+    }
+
+    // Actualiza la página con el estado de la partida recibido del servidor.
+    function actualizarPartida(estado) {
+        if (estado.terminada) {
+            // Al terminar se recarga una vez para mostrar el mensaje final y el botón de nueva partida.
+            location.reload();
+            return;
+        }
+
+        $("#palabra span").text(estado.palabraOculta);
+        if (estado.jugador1 !== null) $(".marcador .puntuacion").text(estado.jugador1 + ":" + estado.jugador2);
+        mostrarImagen(estado.fallos);
+        estado.letrasProbadas.forEach(letra => {
+            $(".tecla[value='" + letra + "']").removeClass("tecla").addClass("letra-oculta");
+        });
+
+        // Sincroniza la cuenta atrás con el turno del servidor, que se reinicia en cada intento.
+        tiempoRestante = estado.segundosRestantes;
+        actualizarTemporizador();
+    }
+
+    let tiempoRestante = parseInt($("#tiempo-restante").text());
+    let consultando = false;
+
+    // Recibe del servidor los cambios de la partida (turnos agotados, intentos y puntuación) sin recargar la página
+    if ($("#tiempo-restante").length && window.EventSource) {
+        const eventos = new EventSource("/eventos");
+        ["letra", "palabra", "tiempo", "puntuacion"].forEach(evento => {
+            eventos.addEventListener(evento, e => actualizarPartida(JSON.parse(e.data)));
+        });
     }
-    let tiempoRestante = 10;
 
     // Actualiza el contenido del elemento con id "tiempo-restante" con el tiempo restante actualizado
     function actualizarTemporizador() {
-        $("#tiempo-restante").text(tiempoRestante);
+        $("#tiempo-restante").text(Math.max(tiempoRestante, 0));
     }
 
     // Configura un temporizador que disminuirá el tiempo restante cada segundo
-    const temporizadorInterval = setInterval(() => {
-        tiempoRestante--;
+    if ($("#tiempo-restante").length) {
+        setInterval(() => {
+            tiempoRestante--;
 
-        // Verifica si el tiempo ha llegado a cero
-        if (tiempoRestante <= 0) {
-            clearInterval(temporizadorInterval); // Detiene el temporizador
-            location.reload()
-        }
+            // Al llegar a cero el servidor avisa con un evento de que ha contado el fallo y empezado otro turno.
+            // Si el evento no llega (temporizador perezoso o sin conexión de eventos) se pide el estado.
+            if (tiempoRestante <= -1 && !consultando) {
+                consultando = true;
+                $.getJSON("/api/estado", actualizarPartida).always(() => consultando = false);
+            }
 
-        // Actualiza el temporizador en la vista
-        actualizarTemporizador();
-    }, 1000); // 1000 milisegundos = 1 segundo
+            // Actualiza el temporizador en la vista
+            actualizarTemporizador();
+        }, 1000); // 1000 milisegundos = 1 segundo
+    }
 });
@@ -0,0 +1,49 @@
+package com.example.ahorcado.controller;
+
+import com.example.ahorcado.utilidades.ConjuntoLetras;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheVistasTests {
+
+	private final CacheVistas vistas = new CacheVistas(plantillas(), new ResourceUrlProvider());
+
+	@Test
+	void elTecladoOcultaLasLetrasProbadas() {
+		ConjuntoLetras probadas = new ConjuntoLetras();
+		probadas.anadir('A');
+		probadas.anadir('Ñ');
+
+		String teclado = vistas.teclado(probadas, false);
+
+		assertEquals(27, teclado.split("<button").length - 1);
+		assertEquals(2, teclado.split("letra-oculta").length - 1);
+		assertFalse(teclado.contains("disabled"));
+		assertTrue(vistas.teclado(probadas, true).contains("disabled"));
+	}
+
+	@Test
+	void lasMismasLetrasReutilizanElTecladoGenerado() {
+		ConjuntoLetras probadas = new ConjuntoLetras();
+		probadas.anadir('E');
+		String primero = vistas.teclado(probadas, false);
+
+		// Otro jugador con las mismas letras probadas recibe el mismo texto, sin generarlo de nuevo
+		assertSame(primero, vistas.teclado(new ConjuntoLetras(probadas.getBits()), false));
+		assertNotSame(primero, vistas.teclado(new ConjuntoLetras(), false));
+	}
+
+	private static SpringTemplateEngine plantillas() {
+		ClassLoaderTemplateResolver resolutor = new ClassLoaderTemplateResolver();
+		resolutor.setPrefix("templates/");
+		resolutor.setSuffix(".html");
+		resolutor.setCharacterEncoding("UTF-8");
+		SpringTemplateEngine plantillas = new SpringTemplateEngine();
+		plantillas.setTemplateResolver(resolutor);
+		return plantillas;
+	}
+}
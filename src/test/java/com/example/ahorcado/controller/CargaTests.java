@@ -0,0 +1,258 @@
+package com.example.ahorcado.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de extremo a extremo: varios jugadores virtuales a la vez inician sesión y juegan partidas
+ * completas contra el servidor embebido, igual que el navegador (/login, /ahorcado, /adivinar/{letra}, /adivinar
+ * y /nuevaPartida). Al terminar muestra por endpoint la latencia p50 y p99, las peticiones por segundo y los errores,
+ * y comprueba que ningún jugador ve letras que no ha probado, es decir, que no le llega la partida de otro.
+ * Cada jugador virtual tiene su propia cuenta, de un fichero de cuentas que se genera para la prueba.
+ * <p>
+ * Solo se ejecuta si se indica el número de jugadores:
+ * {@code mvn test -Dtest=CargaTests -Dcarga.usuarios=50 -Dcarga.partidas=5 -Dcarga.espera-ms=100}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "carga.usuarios", matches = "[1-9]\\d*")
+class CargaTests {
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+	private static final Pattern PALABRA_OCULTA = Pattern.compile("id=\"palabra\">\\s*<span>([^<]*)</span>");
+	private static final String ABECEDARIO = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final int MAX_FALLOS = 6;
+	private static final String CONTRASENA = "carga";
+
+	@LocalServerPort
+	private int puerto;
+
+	private final Map<String, Medidas> medidas = new ConcurrentSkipListMap<>();
+	private final Queue<String> filtraciones = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Genera el fichero con las cuentas de los jugadores virtuales, jugador0, jugador1... todas con la misma contraseña.
+	 */
+	@DynamicPropertySource
+	static void cuentas(DynamicPropertyRegistry propiedades) throws IOException {
+		String contrasena = new BCryptPasswordEncoder().encode(CONTRASENA);
+		StringBuilder lineas = new StringBuilder();
+		for (int i = 0; i < Integer.getInteger("carga.usuarios"); i++) {
+			lineas.append("jugador").append(i).append('\t').append(contrasena).append("\tUSER\n");
+		}
+		Path fichero = Files.createTempFile("cuentas-carga", ".tsv");
+		fichero.toFile().deleteOnExit();
+		Files.writeString(fichero, lineas, StandardCharsets.UTF_8);
+		propiedades.add("ahorcado.cuentas.fichero", fichero::toString);
+	}
+
+	@Test
+	void jugadoresSimultaneos() throws InterruptedException {
+		int usuarios = Integer.getInteger("carga.usuarios");
+		int partidas = Integer.getInteger("carga.partidas", 5);
+		long espera = Long.getLong("carga.espera-ms", 100);
+
+		ExecutorService hilos = Executors.newFixedThreadPool(usuarios);
+		List<Future<?>> jugadores = new ArrayList<>();
+		long inicio = System.nanoTime();
+		for (int i = 0; i < usuarios; i++) {
+			String usuario = "jugador" + i;
+			jugadores.add(hilos.submit(() -> {
+				new JugadorVirtual(usuario, espera).jugar(partidas);
+				return null;
+			}));
+		}
+		List<Throwable> fallidos = new ArrayList<>();
+		for (Future<?> jugador : jugadores) {
+			try {
+				jugador.get();
+			} catch (ExecutionException e) {
+				fallidos.add(e.getCause());
+			}
+		}
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		hilos.shutdown();
+
+		informe(usuarios, espera, segundos);
+		if (!fallidos.isEmpty()) fail(fallidos.size() + " jugadores no han terminado, el primero por", fallidos.get(0));
+		assertTrue(filtraciones.isEmpty(), () -> "Estado de partida de otro jugador: " + filtraciones);
+		medidas.forEach((endpoint, medida) -> assertEquals(0, medida.errores.get(), "Errores en " + endpoint));
+	}
+
+	private void informe(int usuarios, long espera, double segundos) {
+		System.out.printf("%nCarga: %d jugadores, espera %d ms, %.1f s%n", usuarios, espera, segundos);
+		System.out.printf("%-22s %9s %8s %9s %9s %9s%n", "Endpoint", "Peticiones", "Errores", "p50 ms", "p99 ms", "pet/s");
+		medidas.forEach((endpoint, medida) -> {
+			long[] latencias = medida.latencias();
+			System.out.printf("%-22s %9d %8d %9.2f %9.2f %9.1f%n", endpoint, latencias.length, medida.errores.get(),
+					percentil(latencias, 50) / 1e6, percentil(latencias, 99) / 1e6, latencias.length / segundos);
+		});
+	}
+
+	private static long percentil(long[] ordenadas, int percentil) {
+		if (ordenadas.length == 0) return 0;
+		return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(ordenadas.length * percentil / 100.0) - 1)];
+	}
+
+	private Medidas medida(String endpoint) {
+		return medidas.computeIfAbsent(endpoint, k -> new Medidas());
+	}
+
+	/**
+	 * Latencias y errores de un endpoint.
+	 */
+	private static final class Medidas {
+		private final Queue<Long> nanos = new ConcurrentLinkedQueue<>();
+		private final AtomicLong errores = new AtomicLong();
+
+		private void error() {
+			errores.incrementAndGet();
+		}
+
+		private long[] latencias() {
+			return nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+		}
+	}
+
+	/**
+	 * Jugador con su propia cuenta y sesión (sus cookies) que juega partidas probando letras en un orden aleatorio.
+	 */
+	private final class JugadorVirtual {
+		private final HttpClient cliente = HttpClient.newBuilder()
+				.cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		private final String usuario;
+		private final long espera;
+		private String csrf;
+
+		private JugadorVirtual(String usuario, long espera) {
+			this.usuario = usuario;
+			this.espera = espera;
+		}
+
+		private void jugar(int partidas) throws IOException, InterruptedException {
+			csrf = extraer(CSRF, peticion("GET /login", get("/login"), 200));
+			peticion("POST /login", post("/login", "username=" + usuario + "&password=" + CONTRASENA), 302);
+
+			for (int i = 0; i < partidas; i++) {
+				jugarPartida();
+				pensar();
+				peticion("GET /nuevaPartida", get("/nuevaPartida"), 302);
+			}
+		}
+
+		private void jugarPartida() throws IOException, InterruptedException {
+			String pagina = peticion("GET /ahorcado", get("/ahorcado"), 200);
+			csrf = extraer(CSRF, pagina);
+			String palabraOculta = extraer(PALABRA_OCULTA, pagina);
+			if (palabraOculta == null || !palabraOculta.replace("_", "").isBlank()) {
+				filtraciones.add("partida nueva con letras descubiertas: " + palabraOculta);
+				return;
+			}
+
+			List<Character> letras = new ArrayList<>();
+			for (char letra : ABECEDARIO.toCharArray()) letras.add(letra);
+			Collections.shuffle(letras);
+			Set<Character> probadas = new HashSet<>();
+			int fallos = 0;
+
+			for (char letra : letras) {
+				if (fallos >= MAX_FALLOS || !palabraOculta.contains("_")) break;
+				pensar();
+
+				String respuesta = peticion("GET /adivinar/{letra}", get("/adivinar/" + letra), 200);
+				String nueva = extraer(PALABRA_OCULTA, respuesta);
+				probadas.add(letra);
+				if (nueva == null) continue;
+				comprobarPropia(palabraOculta, nueva, probadas);
+				if (nueva.equals(palabraOculta)) fallos++;
+				palabraOculta = nueva;
+
+				// De vez en cuando intenta la palabra entera con una que no existe, como un jugador que se arriesga
+				if (ThreadLocalRandom.current().nextInt(8) == 0 && fallos < MAX_FALLOS - 1) {
+					pensar();
+					peticion("POST /adivinar", post("/adivinar", "intentoPalabra=" + URLEncoder.encode("QXZ" + letra, StandardCharsets.UTF_8)), 302);
+					fallos++;
+				}
+			}
+		}
+
+		/**
+		 * Comprueba que la palabra oculta recibida es de la misma partida: misma longitud, no se tapan letras
+		 * ya descubiertas y solo aparecen letras que ha probado este jugador.
+		 */
+		private void comprobarPropia(String anterior, String nueva, Set<Character> probadas) {
+			if (nueva.length() != anterior.length()) {
+				filtraciones.add(anterior + " -> " + nueva);
+				return;
+			}
+			for (int i = 0; i < nueva.length(); i += 2) {
+				char letra = nueva.charAt(i);
+				boolean tapada = anterior.charAt(i) != '_' && anterior.charAt(i) != letra;
+				if (tapada || (letra != '_' && !probadas.contains(letra))) {
+					filtraciones.add(anterior + " -> " + nueva + " probadas " + probadas);
+					return;
+				}
+			}
+		}
+
+		private String peticion(String endpoint, HttpRequest peticion, int estadoEsperado) throws IOException, InterruptedException {
+			long inicio = System.nanoTime();
+			HttpResponse<String> respuesta;
+			try {
+				respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+			} catch (IOException e) {
+				medida(endpoint).error();
+				throw e;
+			}
+			Medidas medida = medida(endpoint);
+			medida.nanos.add(System.nanoTime() - inicio);
+			if (respuesta.statusCode() != estadoEsperado) medida.error();
+			return respuesta.body();
+		}
+
+		private HttpRequest get(String ruta) {
+			return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).GET().build();
+		}
+
+		private HttpRequest post(String ruta, String formulario) {
+			return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString(formulario + "&_csrf=" + URLEncoder.encode(csrf, StandardCharsets.UTF_8)))
+					.build();
+		}
+
+		private void pensar() throws InterruptedException {
+			if (espera > 0) Thread.sleep(ThreadLocalRandom.current().nextLong(espera / 2, espera * 3 / 2 + 1));
+		}
+
+		private String extraer(Pattern patron, String texto) {
+			Matcher m = patron.matcher(texto);
+			return m.find() ? m.group(1) : null;
+		}
+	}
+}
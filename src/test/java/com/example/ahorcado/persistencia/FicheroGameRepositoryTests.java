@@ -0,0 +1,49 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.InstantaneaPartida;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FicheroGameRepositoryTests {
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void recuperaLasPartidasTrasReiniciarAunqueElFinalEsteDanado() throws Exception {
+		Path ruta = directorio.resolve("partidas.log");
+		Game partida = new Game("CAMIÓN", "Vehículo", null, null);
+		partida.probarLetra('c');
+		partida.probarLetra('x');
+		partida.probarPalabra("camión");
+		partida.marcarClasificada();
+
+		FicheroGameRepository repositorio = new FicheroGameRepository(ruta);
+		repositorio.guardar(Map.of("user", Optional.of(InstantaneaPartida.de(partida)),
+				"admin", Optional.of(InstantaneaPartida.de(new Game("SOL", "Estrella", null, null)))));
+		repositorio.guardar(Map.of("admin", Optional.empty()));
+		repositorio.close();
+
+		// Un registro a medio escribir al caerse el servidor
+		Files.write(ruta, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+		repositorio = new FicheroGameRepository(ruta);
+		assertTrue(repositorio.cargar("admin").isEmpty());
+		Game recuperada = new Game(repositorio.cargar("user").orElseThrow(), null);
+		assertEquals("C A M I Ó N ", recuperada.obtenerPalabraOculta());
+		assertEquals(1, recuperada.getFallos());
+		assertTrue(recuperada.palabraDescubierta());
+		assertTrue(recuperada.clasificada());
+		assertFalse(recuperada.estadisticasRegistradas());
+		repositorio.close();
+	}
+}
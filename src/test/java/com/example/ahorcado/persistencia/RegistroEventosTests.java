@@ -0,0 +1,85 @@
+package com.example.ahorcado.persistencia;
+
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.InstantaneaPartida;
+import com.example.ahorcado.services.OyentePartida;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroEventosTests {
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void reproduceLosEventosTrasReiniciarYCambiarDeSegmento() throws Exception {
+		RegistroEventos registro = new RegistroEventos(directorio.toString(), 1, 64, 1000);
+		Game partida = new Game("SOL", "Estrella", null, null);
+		partida.setOyente(registro::registrar);
+		registro.registrar(partida, OyentePartida.Accion.INICIO, null);
+		partida.probarLetra('S');
+		partida.probarLetra('X');
+		registro.prepararSegmento();
+
+		// Suficientes partidas terminadas para llenar más de un segmento de 1 MB
+		for (int i = 0; i < 30_000; i++) {
+			Game otra = new Game("MAR", "Agua salada", null, null);
+			otra.setOyente(registro::registrar);
+			registro.registrar(otra, OyentePartida.Accion.INICIO, null);
+			otra.probarPalabra("MAR");
+		}
+		// Queda preparado un segmento vacío que no se llega a usar antes de reiniciar
+		registro.prepararSegmento();
+		long secuencia = registro.getSecuencia();
+		registro.sincronizar();
+
+		RegistroEventos reiniciado = new RegistroEventos(directorio.toString(), 1, 64, 1000);
+		assertEquals(secuencia, reiniciado.getSecuencia());
+		partida.setOyente(reiniciado::registrar);
+		partida.probarLetra('L');
+		assertEquals(secuencia + 1, reiniciado.getSecuencia());
+
+		List<EventoPartida> historial = reiniciado.historial(partida.getId());
+		assertEquals(4, historial.size());
+		assertEquals(OyentePartida.Accion.INICIO, historial.get(0).accion());
+		assertEquals("SOL", historial.get(0).detalle());
+		assertEquals("X", historial.get(2).detalle());
+		assertEquals(1, historial.get(2).fallos());
+		assertEquals("L", historial.get(3).detalle());
+	}
+
+	@Test
+	void sigueLosEventosDeUnaPartidaYLaReproduce() throws Exception {
+		RegistroEventos registro = new RegistroEventos(directorio.toString(), 1, 64, 2);
+		RegistroEventos.Cursor cursor = registro.cursor(0);
+		Game partida = new Game("SOL", "Estrella", null, null);
+		partida.setOyente(registro::registrar);
+		registro.registrar(partida, OyentePartida.Accion.INICIO, null);
+		partida.probarLetra('S');
+		partida.probarLetra('X');
+		partida.probarPalabra("SOL");
+		assertEquals(4, registro.historial(partida.getId()).size());
+
+		InstantaneaPartida reproducida = registro.reproducir(partida.getId()).orElseThrow();
+		assertEquals("S O L ", reproducida.palabraOculta());
+		assertEquals(1, reproducida.fallos());
+		assertTrue(new Game(reproducida, null).palabraDescubierta());
+
+		// Con el índice lleno la partida se olvida y sus eventos se buscan recorriendo el registro
+		for (int i = 0; i < 3; i++) registro.registrar(new Game("MAR", "Agua salada", null, null), OyentePartida.Accion.INICIO, null);
+		assertEquals(4, registro.historial(partida.getId()).size());
+
+		List<EventoPartida> leidos = new ArrayList<>();
+		registro.leer(cursor, leidos::add);
+		assertEquals(7, leidos.size());
+		assertEquals(registro.getSecuencia(), cursor.getSecuencia());
+		registro.leer(cursor, leidos::add);
+		assertEquals(7, leidos.size());
+	}
+}
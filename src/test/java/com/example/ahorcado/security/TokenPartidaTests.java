@@ -0,0 +1,82 @@
+package com.example.ahorcado.security;
+
+import com.example.ahorcado.services.Corpus;
+import com.example.ahorcado.services.Diccionario;
+import com.example.ahorcado.services.Game;
+import com.example.ahorcado.services.MazoPalabras;
+import com.example.ahorcado.services.SelectorPalabras;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPartidaTests {
+
+	private final Corpus corpus = new Diccionario("").actual();
+	private final TokenPartida tokens = new TokenPartida(true, "clave-de-prueba", 1000);
+
+	@Test
+	void elTokenRecuperaLaPartida() {
+		Game partida = new Game(corpus, 3, null);
+		partida.probarLetra(partida.getPalabra().charAt(0));
+		partida.probarLetra('Ñ');
+
+		Game recuperada = tokens.decodificar(tokens.codificar(partida, "ana"), "ana", corpus).orElseThrow();
+		assertEquals(partida.getId(), recuperada.getId());
+		assertEquals(partida.getPalabra(), recuperada.getPalabra());
+		assertEquals(partida.obtenerPalabraOculta(), recuperada.obtenerPalabraOculta());
+		assertEquals(partida.getLetrasProbadas(), recuperada.getLetrasProbadas());
+		assertEquals(partida.getFallos(), recuperada.getFallos());
+		assertTrue(recuperada.milisegundosRestantesTurno() > 9000);
+	}
+
+	@Test
+	void rechazaTokensManipuladosDeOtraClaveODeOtroJugador() {
+		String token = tokens.codificar(new Game(corpus, 3, null), "ana");
+		char[] manipulado = token.toCharArray();
+		manipulado[8] = manipulado[8] == 'A' ? 'B' : 'A';
+
+		assertEquals(Optional.empty(), tokens.decodificar(new String(manipulado), "ana", corpus));
+		assertEquals(Optional.empty(), new TokenPartida(true, "otra-clave", 1000).decodificar(token, "ana", corpus));
+		assertEquals(Optional.empty(), tokens.decodificar(token, "luis", corpus));
+		assertEquals(Optional.empty(), tokens.decodificar("no es un token", "ana", corpus));
+		assertNotEquals(tokens.derivarClave("recordarme"), new TokenPartida(true, "otra-clave", 1000).derivarClave("recordarme"));
+	}
+
+	@Test
+	void unTokenAntiguoNoDeshaceLaPartida() {
+		Game partida = new Game(corpus, 3, null);
+		String antesDeFallar = tokens.codificar(partida, "ana");
+		Game jugada = tokens.decodificar(antesDeFallar, "ana", corpus).orElseThrow();
+		jugada.probarLetra('Ñ');
+		jugada.probarPalabra(jugada.getPalabra());
+		jugada.marcarClasificada();
+		tokens.codificar(jugada, "ana");
+
+		// Al volver a enviar el token de antes se sigue con el último
+		Game repetida = tokens.decodificar(antesDeFallar, "ana", corpus).orElseThrow();
+		assertEquals(jugada.getFallos(), repetida.getFallos());
+		assertTrue(repetida.clasificada());
+		assertFalse(repetida.marcarClasificada());
+	}
+
+	@Test
+	void elTokenDelMazoSigueConLasMismasPalabras() {
+		int[] candidatas = IntStream.range(0, 20).toArray();
+		MazoPalabras mazo = new MazoPalabras(candidatas);
+		for (int i = 0; i < 25; i++) mazo.robar();
+		SelectorPalabras.Criterio criterio = new SelectorPalabras.Criterio(SelectorPalabras.Dificultad.values()[0], "animales", null);
+
+		String token = tokens.codificarMazo(criterio, mazo, "ana");
+		TokenPartida.MazoGuardado guardado = tokens.decodificarMazo(token, "ana").orElseThrow();
+		assertEquals(criterio, guardado.criterio());
+		MazoPalabras restaurado = MazoPalabras.restaurar(candidatas, guardado.mazo()).orElseThrow();
+		for (int i = 0; i < 30; i++) assertEquals(mazo.robar(), restaurado.robar());
+
+		assertEquals(Optional.empty(), tokens.decodificarMazo(token, "luis"));
+		assertEquals(Optional.empty(), tokens.decodificar(token, "ana", corpus));
+		assertEquals(Optional.empty(), MazoPalabras.restaurar(IntStream.range(0, 21).toArray(), guardado.mazo()));
+	}
+}
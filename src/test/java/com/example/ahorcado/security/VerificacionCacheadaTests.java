@@ -0,0 +1,65 @@
+package com.example.ahorcado.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificacionCacheadaTests {
+
+	private final AtomicInteger comprobaciones = new AtomicInteger();
+	private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+	private final PasswordEncoder contador = new PasswordEncoder() {
+		@Override
+		public String encode(CharSequence contrasena) {
+			return bcrypt.encode(contrasena);
+		}
+
+		@Override
+		public boolean matches(CharSequence contrasena, String codificada) {
+			comprobaciones.incrementAndGet();
+			return bcrypt.matches(contrasena, codificada);
+		}
+	};
+
+	@Test
+	void recuerdaSoloLasComprobacionesCorrectas() {
+		VerificacionCacheada verificacion = new VerificacionCacheada(contador, 10, 30);
+		String codificada = verificacion.encode("secreta");
+
+		assertTrue(verificacion.matches("secreta", codificada));
+		assertTrue(verificacion.matches("secreta", codificada));
+		assertEquals(1, comprobaciones.get());
+
+		// Las contraseñas equivocadas se comprueban siempre
+		assertFalse(verificacion.matches("otra", codificada));
+		assertFalse(verificacion.matches("otra", codificada));
+		assertEquals(3, comprobaciones.get());
+
+		// Con otro hash (la contraseña ha cambiado) se vuelve a comprobar
+		assertTrue(verificacion.matches("secreta", verificacion.encode("secreta")));
+		assertEquals(4, comprobaciones.get());
+	}
+
+	@Test
+	void noGuardaMasDelMaximo() {
+		VerificacionCacheada verificacion = new VerificacionCacheada(contador, 3, 30);
+		List<String> codificadas = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			String contrasena = "clave" + i;
+			codificadas.add(bcrypt.encode(contrasena));
+			assertTrue(verificacion.matches(contrasena, codificadas.get(i)));
+		}
+		assertTrue(verificacion.tamano() <= 3);
+
+		// Se olvidan las menos usadas: la última sigue recordada
+		int antes = comprobaciones.get();
+		assertTrue(verificacion.matches("clave9", codificadas.get(9)));
+		assertEquals(antes, comprobaciones.get());
+	}
+}
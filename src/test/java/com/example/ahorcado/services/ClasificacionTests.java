@@ -0,0 +1,109 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.GameRepository;
+import com.example.ahorcado.persistencia.StatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClasificacionTests {
+	private final Map<String, Long> guardados = new HashMap<>();
+	private EscrituraDiferida escritura;
+
+	@BeforeEach
+	void preparar() {
+		escritura = new EscrituraDiferida(new GameRepository() {
+			@Override
+			public Optional<InstantaneaPartida> cargar(String jugador) {
+				return Optional.empty();
+			}
+
+			@Override
+			public void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+			}
+		}, new StatsRepository() {
+			@Override
+			public Map<String, Long> cargar() {
+				return Map.copyOf(guardados);
+			}
+
+			@Override
+			public void sumar(Map<String, Long> incrementos) {
+				incrementos.forEach((clave, cantidad) -> guardados.merge(clave, cantidad, Long::sum));
+			}
+		});
+	}
+
+	private static Game terminada(boolean ganada) {
+		Game partida = new Game("SOL", "Estrella", null, null);
+		if (ganada) partida.probarPalabra("SOL");
+		else for (char letra : "XYZWQK".toCharArray()) partida.probarLetra(letra);
+		return partida;
+	}
+
+	@Test
+	void ordenaPorVictoriasYRacha() {
+		Clasificacion clasificacion = new Clasificacion(escritura);
+		clasificacion.registrar("ana", terminada(true));
+		clasificacion.registrar("ana", terminada(false));
+		clasificacion.registrar("ana", terminada(true));
+		clasificacion.registrar("luis", terminada(true));
+		clasificacion.registrar("luis", terminada(true));
+		clasificacion.registrar("eva", terminada(true));
+
+		List<Clasificacion.EstadisticasJugador> primeros = clasificacion.primeros(100);
+		assertEquals(List.of("luis", "ana", "eva"), primeros.stream().map(Clasificacion.EstadisticasJugador::jugador).toList());
+		assertEquals(new Clasificacion.EstadisticasJugador("ana", 2, 1, 1, 1), clasificacion.de("ana"));
+		assertEquals(new Clasificacion.EstadisticasJugador("luis", 2, 0, 2, 2), clasificacion.de("luis"));
+		assertEquals(2, clasificacion.primeros(2).size());
+	}
+
+	@Test
+	void cadaPartidaSeCuentaUnaVez() {
+		Clasificacion clasificacion = new Clasificacion(escritura);
+		Game partida = new Game("SOL", "Estrella", null, null);
+		clasificacion.registrar("ana", partida);
+		assertEquals(0, clasificacion.tamano());
+
+		partida.probarPalabra("SOL");
+		clasificacion.registrar("ana", partida);
+		clasificacion.registrar("ana", partida);
+		assertEquals(1, clasificacion.de("ana").victorias());
+	}
+
+	@Test
+	void unaPartidaGuardadaYRecuperadaNoSeCuentaOtraVez() {
+		Clasificacion clasificacion = new Clasificacion(escritura);
+		GameStats estadisticas = new GameStats(escritura);
+		Game partida = terminada(true);
+		clasificacion.registrar("ana", partida);
+		estadisticas.registrarFinal(partida);
+
+		Game recuperada = new Game(InstantaneaPartida.de(partida), null);
+		clasificacion.registrar("ana", recuperada);
+		estadisticas.registrarFinal(recuperada);
+		assertEquals(1, clasificacion.de("ana").victorias());
+		assertEquals(1, estadisticas.vecesAcertada("SOL"));
+	}
+
+	@Test
+	void seRecuperaDeLaEscrituraDiferida() {
+		Clasificacion clasificacion = new Clasificacion(escritura);
+		clasificacion.registrar("ana", terminada(true));
+		clasificacion.registrar("ana", terminada(true));
+		clasificacion.registrar("ana", terminada(false));
+		clasificacion.registrar("ana", terminada(true));
+		escritura.vaciar();
+
+		Clasificacion recuperada = new Clasificacion(escritura);
+		assertEquals(clasificacion.de("ana"), recuperada.de("ana"));
+		assertEquals(clasificacion.primeros(100), recuperada.primeros(100));
+	}
+}
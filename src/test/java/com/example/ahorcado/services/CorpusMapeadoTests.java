@@ -0,0 +1,68 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusMapeadoTests {
+
+	@TempDir
+	Path carpeta;
+
+	@Test
+	void leeLasEntradasDelFichero() throws IOException {
+		Path fichero = escribir("palabras.tsv", """
+				# palabra	pista	categoria	dificultad
+				MANZANA	Una fruta roja y jugosa.	Frutas	1
+				montaña	Elevación natural del terreno.	naturaleza\r
+
+				KIWI	Pequeña y verde.
+				""");
+
+		CorpusMapeado corpus = CorpusMapeado.cargar(fichero);
+
+		assertEquals(3, corpus.tamano());
+		assertEquals("MANZANA", corpus.palabra(0));
+		assertEquals("Una fruta roja y jugosa.", corpus.pista(0));
+		assertEquals("frutas", corpus.categoria(0));
+		assertEquals(1, corpus.dificultad(0));
+		assertEquals("MONTAÑA", corpus.palabra(1));
+		assertEquals("naturaleza", corpus.categoria(1));
+		assertEquals(Corpus.SIN_DIFICULTAD, corpus.dificultad(1));
+		assertEquals("", corpus.categoria(2));
+		assertEquals(1, corpus.indice("MONTAÑA"));
+		assertEquals(-1, corpus.indice("PERA"));
+	}
+
+	@Test
+	void elDiccionarioSeRecargaAlSustituirElFichero() throws IOException {
+		Path fichero = escribir("palabras.tsv", "CASA\tLugar donde vives.\n");
+		Diccionario diccionario = new Diccionario(fichero.toString());
+		assertEquals(1, diccionario.tamano());
+
+		Path nuevo = escribir("nuevo.tsv", "CASA\tLugar donde vives.\nPERRO\tUn amigo de cuatro patas.\n");
+		Files.move(nuevo, fichero, StandardCopyOption.REPLACE_EXISTING);
+		diccionario.recargarSiCambia();
+
+		assertEquals(2, diccionario.tamano());
+		assertEquals("Un amigo de cuatro patas.", diccionario.pista("PERRO"));
+	}
+
+	@Test
+	void sinFicheroUsaLasPalabrasIncluidas() {
+		Diccionario diccionario = new Diccionario("");
+
+		assertEquals(68, diccionario.tamano());
+		assertEquals("Lugar donde vives.", diccionario.pista("CASA"));
+	}
+
+	private Path escribir(String nombre, String contenido) throws IOException {
+		return Files.writeString(carpeta.resolve(nombre), contenido);
+	}
+}
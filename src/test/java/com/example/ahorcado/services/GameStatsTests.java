@@ -0,0 +1,115 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.GameRepository;
+import com.example.ahorcado.persistencia.RegistroEventos;
+import com.example.ahorcado.persistencia.StatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStatsTests {
+	private final Map<String, Long> guardados = new HashMap<>();
+	private EscrituraDiferida escritura;
+
+	@TempDir
+	Path directorio;
+
+	@BeforeEach
+	void preparar() {
+		escritura = new EscrituraDiferida(new GameRepository() {
+			@Override
+			public Optional<InstantaneaPartida> cargar(String jugador) {
+				return Optional.empty();
+			}
+
+			@Override
+			public void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+			}
+		}, new StatsRepository() {
+			@Override
+			public Map<String, Long> cargar() {
+				return Map.copyOf(guardados);
+			}
+
+			@Override
+			public void sumar(Map<String, Long> incrementos) {
+				incrementos.forEach((clave, cantidad) -> guardados.merge(clave, cantidad, Long::sum));
+			}
+		});
+	}
+
+	private static void acertar(GameStats estadisticas, String palabra, int veces) {
+		for (int i = 0; i < veces; i++) {
+			Game partida = new Game(palabra, "Pista", null, null);
+			estadisticas.nuevaPartida(palabra);
+			partida.probarLetra(palabra.charAt(0));
+			partida.probarPalabra(palabra);
+			estadisticas.registrarFinal(partida);
+		}
+	}
+
+	@Test
+	void guardaSoloLasPalabrasMasAcertadas() {
+		GameStats estadisticas = new GameStats(escritura);
+		for (int i = 0; i < 200; i++) acertar(estadisticas, "PALABRA" + i, 1);
+		acertar(estadisticas, "SOL", 30);
+		acertar(estadisticas, "MAR", 20);
+
+		Map<String, Long> masAcertadas = estadisticas.getPalabrasAcertadas();
+		assertEquals(10, masAcertadas.size());
+		assertEquals(List.of("SOL", "MAR"), masAcertadas.keySet().stream().limit(2).toList());
+		assertTrue(estadisticas.vecesAcertada("SOL") >= 30);
+
+		GameStats.Resumen resumen = estadisticas.resumen();
+		assertEquals(250, resumen.partidas());
+		assertEquals(202, resumen.palabrasDistintas(), 202 * 0.1);
+		assertEquals(1, resumen.intentosMediana());
+	}
+
+	@Test
+	void seRecuperaDeLaEscrituraDiferida() {
+		GameStats estadisticas = new GameStats(escritura);
+		acertar(estadisticas, "SOL", 3);
+		acertar(estadisticas, "MAR", 5);
+		estadisticas.registrarJugador("ana");
+		estadisticas.registrarJugador("luis");
+		escritura.vaciar();
+
+		GameStats recuperadas = new GameStats(escritura);
+		assertEquals(estadisticas.getPalabrasAcertadas(), recuperadas.getPalabrasAcertadas());
+		assertEquals(estadisticas.getLetrasAcertadas(), recuperadas.getLetrasAcertadas());
+		assertEquals(2, recuperadas.numeroJugadores());
+		assertEquals(estadisticas.resumen(), recuperadas.resumen());
+	}
+
+	@Test
+	void sumaLosResultadosDelRegistroFueraDeLaPeticion() throws Exception {
+		RegistroEventos registro = new RegistroEventos(directorio.toString(), 1, 64, 1000);
+		GameStats estadisticas = new GameStats(escritura);
+		ResultadosDiferidos resultados = new ResultadosDiferidos(registro, estadisticas);
+		Game partida = new Game("SOL", "Estrella", null, null);
+		partida.probarPalabra("SOL");
+
+		resultados.registrarFinal(partida);
+		resultados.registrarFinal(partida);
+		assertEquals(0, estadisticas.vecesAcertada("SOL"));
+		resultados.sumar();
+		assertEquals(1, estadisticas.vecesAcertada("SOL"));
+		escritura.vaciar();
+
+		// Al arrancar de nuevo no se vuelve a sumar lo que ya estaba en las estadísticas guardadas
+		GameStats recuperadas = new GameStats(escritura);
+		new ResultadosDiferidos(new RegistroEventos(directorio.toString(), 1, 64, 1000), recuperadas);
+		assertEquals(1, recuperadas.vecesAcertada("SOL"));
+		assertEquals(registro.getSecuencia(), recuperadas.getSecuenciaEventos());
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTests {
+
+	@Test
+	void losIntentosSimultaneosCuentanUnaVezCadaUno() throws InterruptedException {
+		String falladas = "BCDFG";
+		ExecutorService hilos = Executors.newFixedThreadPool(8);
+		try {
+			for (int vuelta = 0; vuelta < 200; vuelta++) {
+				Game partida = new Game("MAR", "Agua salada", null, null);
+				CountDownLatch salida = new CountDownLatch(1);
+				CountDownLatch fin = new CountDownLatch(falladas.length() * 4);
+
+				// Cada letra fallada llega 4 veces a la vez, como un doble clic repetido
+				for (int i = 0; i < falladas.length() * 4; i++) {
+					char letra = falladas.charAt(i % falladas.length());
+					hilos.execute(() -> {
+						try {
+							salida.await();
+							partida.probarLetra(letra);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						} finally {
+							fin.countDown();
+						}
+					});
+				}
+				salida.countDown();
+				assertTrue(fin.await(5, TimeUnit.SECONDS));
+
+				assertEquals(falladas.length(), partida.getFallos());
+				assertEquals(falladas.length(), partida.getLetrasFalladas().size());
+			}
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+
+	@Test
+	void elOyenteNoDetieneLasConsultasDeLaPartida() throws Exception {
+		ExecutorService hilos = Executors.newSingleThreadExecutor();
+		try {
+			Game partida = new Game("MAR", "Agua salada", null, null);
+			// Otro hilo consulta la partida mientras el oyente escribe, sin esperar a que termine
+			partida.setOyente((cambiada, accion, detalle) -> {
+				Future<EstadoPartida> consulta = hilos.submit(() -> EstadoPartida.de(cambiada));
+				assertDoesNotThrow(() -> assertEquals(1, consulta.get(5, TimeUnit.SECONDS).fallos()));
+			});
+
+			assertFalse(partida.probarLetra('Z'));
+		} finally {
+			hilos.shutdownNow();
+		}
+	}
+}
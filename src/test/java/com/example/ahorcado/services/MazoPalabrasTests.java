@@ -0,0 +1,37 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MazoPalabrasTests {
+
+	@Test
+	void noRepitePalabraHastaAcabarElMazo() {
+		MazoPalabras mazo = new MazoPalabras(IntStream.range(0, 68).toArray());
+
+		for (int vuelta = 0; vuelta < 3; vuelta++) {
+			Set<Integer> robadas = new HashSet<>();
+			for (int i = 0; i < 68; i++) {
+				assertTrue(robadas.add(mazo.robar()));
+			}
+			assertEquals(68, robadas.size());
+		}
+	}
+
+	@Test
+	void noEmpiezaUnaVueltaConLaUltimaPalabra() {
+		MazoPalabras mazo = new MazoPalabras(new int[]{0, 1});
+
+		int anterior = mazo.robar();
+		for (int i = 0; i < 100; i++) {
+			int actual = mazo.robar();
+			assertNotEquals(anterior, actual);
+			anterior = actual;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroPartidasTests {
+
+	private static Game partida() {
+		return new Game("SOL", "Estrella", null, null);
+	}
+
+	@Test
+	void creaLaPartidaUnaSolaVezAunqueLaFabricaUseElRegistro() {
+		RegistroPartidas registro = new RegistroPartidas(10, 30);
+		AtomicInteger creadas = new AtomicInteger();
+
+		// La fábrica se ejecuta fuera del registro, así que puede consultarlo o guardar otra partida
+		Game partida = registro.obtenerOCrear("ana", () -> {
+			creadas.incrementAndGet();
+			assertNull(registro.obtener("ana"));
+			registro.guardar("luis", partida());
+			return partida();
+		});
+
+		assertSame(partida, registro.obtenerOCrear("ana", () -> {
+			creadas.incrementAndGet();
+			return partida();
+		}));
+		assertEquals(1, creadas.get());
+		assertEquals(2, registro.tamano());
+	}
+
+	@Test
+	void siSeCreaDosVecesSeQuedaLaPrimera() {
+		RegistroPartidas registro = new RegistroPartidas(10, 30);
+		Game primera = partida();
+
+		Game devuelta = registro.obtenerOCrear("ana", () -> {
+			registro.guardar("ana", primera);
+			return partida();
+		});
+		assertSame(primera, devuelta);
+		assertSame(primera, registro.obtener("ana"));
+	}
+
+	@Test
+	void alLlenarseDescartaUnLoteDeLasMenosUsadas() throws InterruptedException {
+		RegistroPartidas registro = new RegistroPartidas(32, 30);
+		for (int i = 0; i < 32; i++) {
+			registro.guardar("jugador" + i, partida());
+			Thread.sleep(2);
+		}
+		registro.obtener("jugador0");
+		Thread.sleep(2);
+
+		registro.guardar("nuevo", partida());
+		assertEquals(31, registro.tamano());
+		assertNotNull(registro.obtener("jugador0"));
+		assertNull(registro.obtener("jugador1"));
+		assertNull(registro.obtener("jugador2"));
+		assertNotNull(registro.obtener("jugador3"));
+		assertNotNull(registro.obtener("nuevo"));
+	}
+}
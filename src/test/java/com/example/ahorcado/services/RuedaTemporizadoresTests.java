@@ -0,0 +1,87 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuedaTemporizadoresTests {
+
+	private final RuedaTemporizadores rueda = new RuedaTemporizadores(10, 16);
+
+	@BeforeEach
+	void iniciar() {
+		rueda.iniciar();
+	}
+
+	@AfterEach
+	void detener() throws InterruptedException {
+		rueda.detener();
+	}
+
+	@Test
+	void ejecutaElPlazoAlVencer() throws InterruptedException {
+		CountDownLatch vencido = new CountDownLatch(1);
+		rueda.programar(new RuedaTemporizadores.Plazo(vencido::countDown), 50);
+
+		assertEquals(1, rueda.pendientes());
+		assertTrue(vencido.await(2, TimeUnit.SECONDS));
+		assertEquals(0, rueda.pendientes());
+	}
+
+	@Test
+	void reprogramarNoDuplicaElPlazo() throws InterruptedException {
+		AtomicInteger ejecuciones = new AtomicInteger();
+		RuedaTemporizadores.Plazo plazo = new RuedaTemporizadores.Plazo(ejecuciones::incrementAndGet);
+
+		// Más de una vuelta de la rueda (16 ranuras de 10 ms)
+		rueda.programar(plazo, 400);
+		rueda.programar(plazo, 300);
+		assertEquals(1, rueda.pendientes());
+
+		Thread.sleep(200);
+		assertEquals(0, ejecuciones.get());
+		Thread.sleep(500);
+		assertEquals(1, ejecuciones.get());
+	}
+
+	@Test
+	void cancelarEvitaLaEjecucion() throws InterruptedException {
+		AtomicInteger ejecuciones = new AtomicInteger();
+		RuedaTemporizadores.Plazo plazo = new RuedaTemporizadores.Plazo(ejecuciones::incrementAndGet);
+
+		rueda.programar(plazo, 50);
+		rueda.cancelar(plazo);
+		assertEquals(0, rueda.pendientes());
+
+		Thread.sleep(200);
+		assertEquals(0, ejecuciones.get());
+	}
+
+	@Test
+	void ejecutaLasAccionesEnElEjecutorIndicado() throws InterruptedException {
+		ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "ejecutor-plazos"));
+		try {
+			rueda.setEjecutor(ejecutor);
+			CountDownLatch vencido = new CountDownLatch(1);
+			AtomicReference<String> hilo = new AtomicReference<>();
+			rueda.programar(new RuedaTemporizadores.Plazo(() -> {
+				hilo.set(Thread.currentThread().getName());
+				vencido.countDown();
+			}), 50);
+
+			assertTrue(vencido.await(2, TimeUnit.SECONDS));
+			assertEquals("ejecutor-plazos", hilo.get());
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+}
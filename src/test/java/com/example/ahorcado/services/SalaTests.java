@@ -0,0 +1,41 @@
+package com.example.ahorcado.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaTests {
+
+	@Test
+	void cadaSalaLlevaSuPropiaPuntuacion() {
+		Sala sala1 = new Sala("SALA01");
+		Sala sala2 = new Sala("SALA02");
+
+		sala1.proponer("SOL", "Estrella");
+		Game partida = sala1.empezarSiguiente(p -> new Game(p.palabra(), p.pista(), sala1, null));
+		partida.probarPalabra("sol");
+		partida.establecerPuntuacion();
+		partida.establecerPuntuacion();
+
+		assertEquals(1, sala1.getPuntosJugador1());
+		assertEquals(2, sala1.getTurno());
+		assertEquals(0, sala2.getPuntosJugador1());
+		assertEquals(1, sala2.getTurno());
+	}
+
+	@Test
+	void laSiguientePalabraEsperaAQueTermineLaPartida() {
+		Sala sala = new Sala("SALA01");
+		sala.proponer("SOL", "Estrella");
+		sala.proponer("MAR", "Agua salada");
+
+		Game primera = sala.empezarSiguiente(p -> new Game(p.palabra(), p.pista(), sala, null));
+		assertSame(primera, sala.empezarSiguiente(p -> new Game(p.palabra(), p.pista(), sala, null)));
+
+		primera.probarPalabra("SOL");
+		Game segunda = sala.empezarSiguiente(p -> new Game(p.palabra(), p.pista(), sala, null));
+		assertEquals("MAR", segunda.getPalabra());
+		assertEquals(1, sala.getPuntosJugador1());
+		assertFalse(sala.hayPropuestas());
+	}
+}
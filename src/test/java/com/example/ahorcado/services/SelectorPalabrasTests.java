@@ -0,0 +1,92 @@
+package com.example.ahorcado.services;
+
+import com.example.ahorcado.persistencia.EscrituraDiferida;
+import com.example.ahorcado.persistencia.GameRepository;
+import com.example.ahorcado.persistencia.StatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectorPalabrasTests {
+
+	private final Diccionario diccionario = new Diccionario("");
+	private final GameStats estadisticas = new GameStats(new EscrituraDiferida(new GameRepository() {
+		@Override
+		public Optional<InstantaneaPartida> cargar(String jugador) {
+			return Optional.empty();
+		}
+
+		@Override
+		public void guardar(Map<String, Optional<InstantaneaPartida>> cambios) {
+		}
+	}, new StatsRepository() {
+		@Override
+		public Map<String, Long> cargar() {
+			return Map.of();
+		}
+
+		@Override
+		public void sumar(Map<String, Long> incrementos) {
+		}
+	}));
+	private final SelectorPalabras selector = new SelectorPalabras(diccionario, estadisticas);
+
+	@Test
+	void cadaPalabraEstaEnUnaDificultadYEnSuLongitud() {
+		int n = diccionario.actual().tamano();
+		Set<Integer> vistas = new HashSet<>();
+		for (SelectorPalabras.Dificultad dificultad : SelectorPalabras.Dificultad.values()) {
+			SelectorPalabras.Seleccion seleccion = selector.candidatas(new SelectorPalabras.Criterio(dificultad, null, null));
+			assertTrue(seleccion.indices().length > 0, dificultad + " sin palabras");
+			for (int i : seleccion.indices()) assertTrue(vistas.add(i));
+		}
+		assertEquals(n, vistas.size());
+
+		SelectorPalabras.Seleccion cortas = selector.candidatas(new SelectorPalabras.Criterio(null, null, SelectorPalabras.Longitud.CORTA));
+		for (int i : cortas.indices()) assertTrue(cortas.corpus().palabra(i).length() <= 5);
+
+		// Un criterio sin palabras usa todo el diccionario
+		assertEquals(n, selector.candidatas(new SelectorPalabras.Criterio(null, "no existe", null)).indices().length);
+	}
+
+	@Test
+	void elMazoSigueValiendoTrasReindexar() {
+		SelectorPalabras.Criterio facil = new SelectorPalabras.Criterio(SelectorPalabras.Dificultad.FACIL, null, null);
+		MazoPalabras mazo = new MazoPalabras(selector.candidatas(SelectorPalabras.Criterio.TODAS).indices());
+		int[] antes = selector.candidatas(facil).indices();
+
+		selector.reindexar();
+		assertTrue(mazo.esDe(selector.candidatas(SelectorPalabras.Criterio.TODAS).indices()));
+		assertSame(antes, selector.candidatas(facil).indices());
+
+		// Un mazo recuperado de la sesión tiene su propia copia de las candidatas
+		assertTrue(new MazoPalabras(antes.clone()).esDe(selector.candidatas(facil).indices()));
+	}
+
+	@Test
+	void soloReconstruyeLoQueCambia() {
+		List<String> categorias = selector.categorias();
+		int[] todas = selector.candidatas(SelectorPalabras.Criterio.TODAS).indices();
+
+		// Sin partidas terminadas no se vuelve a clasificar el diccionario
+		selector.reindexar();
+		assertSame(categorias, selector.categorias());
+
+		// Las listas sin dificultad no dependen de las estadísticas
+		Corpus corpus = diccionario.actual();
+		for (int i = 0; i < 20; i++) {
+			Game partida = new Game(corpus, 0, null);
+			partida.probarPalabra(corpus.palabra(0));
+			estadisticas.registrarFinal(partida);
+		}
+		selector.reindexar();
+		assertSame(todas, selector.candidatas(SelectorPalabras.Criterio.TODAS).indices());
+		cadaPalabraEstaEnUnaDificultadYEnSuLongitud();
+	}
+}
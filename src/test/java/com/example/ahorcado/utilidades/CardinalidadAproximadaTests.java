@@ -0,0 +1,36 @@
+package com.example.ahorcado.utilidades;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardinalidadAproximadaTests {
+
+	@Test
+	void estimaLosDistintosSinContarRepetidos() {
+		for (int distintos : new int[]{10, 1_000, 100_000}) {
+			CardinalidadAproximada cardinalidad = new CardinalidadAproximada(10);
+			for (int vuelta = 0; vuelta < 3; vuelta++) {
+				for (int i = 0; i < distintos; i++) cardinalidad.anadir("jugador" + i, null);
+			}
+
+			assertEquals(distintos, cardinalidad.estimar(), Math.max(1, distintos * 0.1));
+		}
+	}
+
+	@Test
+	void seRecuperaConLosIncrementosDeSusRegistros() {
+		CardinalidadAproximada cardinalidad = new CardinalidadAproximada(10);
+		Map<Integer, Long> guardados = new HashMap<>();
+		for (int i = 0; i < 5_000; i++) {
+			cardinalidad.anadir("palabra" + i, (registro, n) -> guardados.merge(registro, n, Long::sum));
+		}
+
+		CardinalidadAproximada recuperada = new CardinalidadAproximada(10);
+		guardados.forEach(recuperada::restaurar);
+		assertEquals(cardinalidad.estimar(), recuperada.estimar());
+	}
+}
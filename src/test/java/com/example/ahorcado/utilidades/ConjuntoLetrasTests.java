@@ -0,0 +1,46 @@
+package com.example.ahorcado.utilidades;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConjuntoLetrasTests {
+
+	@Test
+	void cadaLetraDelAbecedarioTieneSuBit() {
+		ConjuntoLetras letras = new ConjuntoLetras();
+		for (char letra : ConjuntoLetras.ABECEDARIO.toCharArray()) {
+			assertTrue(letras.anadir(letra));
+		}
+
+		assertEquals(27, letras.size());
+		assertEquals(14, ConjuntoLetras.indice('ñ'));
+		assertEquals(15, ConjuntoLetras.indice('O'));
+	}
+
+	@Test
+	void noAnadeRepetidasNiLetrasFueraDelAbecedario() {
+		ConjuntoLetras letras = new ConjuntoLetras();
+
+		assertTrue(letras.anadir('a'));
+		assertFalse(letras.anadir('A'));
+		assertFalse(letras.anadir('Á'));
+		assertFalse(letras.anadir(' '));
+		assertTrue(letras.contiene('a'));
+		assertTrue(letras.contains('A'));
+		assertFalse(letras.contains("A"));
+	}
+
+	@Test
+	void seRecorreEnElOrdenDelAbecedario() {
+		ConjuntoLetras letras = new ConjuntoLetras();
+		letras.anadir('Z');
+		letras.anadir('Ñ');
+		letras.anadir('B');
+
+		assertEquals(List.of('B', 'Ñ', 'Z'), List.copyOf(letras));
+		assertEquals(letras, new ConjuntoLetras(letras.getBits()));
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.ahorcado.utilidades;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContadorAproximadoTests {
+
+	@Test
+	void nuncaSeQuedaCortoYSePasaPoco() {
+		ContadorAproximado contador = new ContadorAproximado(4, 1024);
+		Map<String, Long> reales = new HashMap<>();
+		long total = 0;
+		for (int i = 0; i < 20_000; i++) {
+			String palabra = "PALABRA" + (i % 50 == 0 ? 0 : i % 5_000);
+			contador.sumar(palabra, 1, null);
+			reales.merge(palabra, 1L, Long::sum);
+			total++;
+		}
+
+		long margen = (long) (Math.E / 1024 * total);
+		int pasadas = 0;
+		for (Map.Entry<String, Long> real : reales.entrySet()) {
+			long estimada = contador.estimar(real.getKey());
+			assertTrue(estimada >= real.getValue());
+			if (estimada - real.getValue() > margen) pasadas++;
+		}
+		assertTrue(pasadas < reales.size() / 20, "Demasiadas estimaciones fuera del margen: " + pasadas);
+	}
+
+	@Test
+	void seRecuperaConLosIncrementosDeSusCeldas() {
+		ContadorAproximado contador = new ContadorAproximado(4, 64);
+		Map<Integer, Long> guardadas = new HashMap<>();
+		OyenteCeldas oyente = (celda, n) -> guardadas.merge(celda, n, Long::sum);
+		contador.sumar("SOL", 3, oyente);
+		contador.sumar("MAR", 1, oyente);
+		contador.sumar("SOL", 2, oyente);
+
+		ContadorAproximado recuperado = new ContadorAproximado(4, 64);
+		guardadas.forEach(recuperado::restaurar);
+		assertEquals(contador.estimar("SOL"), recuperado.estimar("SOL"));
+		assertEquals(contador.estimar("MAR"), recuperado.estimar("MAR"));
+		assertTrue(recuperado.estimar("SOL") >= 5);
+	}
+}
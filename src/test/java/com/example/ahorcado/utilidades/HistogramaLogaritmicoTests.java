@@ -0,0 +1,31 @@
+package com.example.ahorcado.utilidades;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaLogaritmicoTests {
+
+	@Test
+	void losValoresPequenosSonExactos() {
+		HistogramaLogaritmico histograma = new HistogramaLogaritmico();
+		for (int intentos = 1; intentos <= 27; intentos++) histograma.registrar(intentos, null);
+
+		assertEquals(27, histograma.total());
+		assertEquals(14, histograma.cuantil(0.5));
+		assertEquals(25, histograma.cuantil(0.9));
+		assertEquals(27, histograma.cuantil(1));
+	}
+
+	@Test
+	void losPercentilesSeAlejanMenosDeUnSeisPorCiento() {
+		HistogramaLogaritmico histograma = new HistogramaLogaritmico();
+		for (long ms = 1; ms <= 100_000; ms++) histograma.registrar(ms, null);
+
+		for (double q : new double[]{0.5, 0.9, 0.99}) {
+			double real = q * 100_000;
+			assertEquals(real, histograma.cuantil(q), real / 16);
+		}
+		assertEquals(0, new HistogramaLogaritmico().cuantil(0.5));
+	}
+}